@@ -0,0 +1,162 @@
+package com.ims.inventoryms.config;
+
+import com.ims.inventoryms.exception.ServiceBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Password encoder that runs hashing and verification on a small dedicated pool with a
+ * bounded queue, so a burst of logins cannot occupy every request thread. When the queue
+ * is full, or a caller has waited too long, the call fails fast with {@link ServiceBusyException}.
+ * A hash that has already started cannot be interrupted, so it keeps its worker until it
+ * finishes; such work is reported as {@code abandonedInFlight}.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+    
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMs;
+    
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final AtomicInteger abandonedInFlight = new AtomicInteger();
+    
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+    private static final int ABANDONED = 3;
+    
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long maxWaitMs) {
+        this.delegate = delegate;
+        this.maxWaitMs = maxWaitMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+    
+    /**
+     * Hashing latency and queue depth since startup
+     */
+    public Map<String, Object> getMetrics() {
+        long count = completed.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("poolSize", executor.getMaximumPoolSize());
+        metrics.put("activeThreads", executor.getActiveCount());
+        metrics.put("queueDepth", executor.getQueue().size());
+        metrics.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        metrics.put("completed", count);
+        metrics.put("rejected", rejected.sum());
+        metrics.put("timedOut", timedOut.sum());
+        metrics.put("abandonedInFlight", abandonedInFlight.get());
+        metrics.put("averageWaitMs", count == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / count);
+        metrics.put("averageHashMs", count == 0 ? 0.0 : totalHashNanos.sum() / 1_000_000.0 / count);
+        metrics.put("maxHashMs", maxHashNanos.get() / 1_000_000.0);
+        return metrics;
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+    
+    private <T> T submit(Callable<T> work) {
+        long submittedAt = System.nanoTime();
+        AtomicInteger state = new AtomicInteger(QUEUED);
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!state.compareAndSet(QUEUED, RUNNING)) {
+                    return null; // the caller gave up while this was queued
+                }
+                long startedAt = System.nanoTime();
+                try {
+                    return work.call();
+                } finally {
+                    long hashNanos = System.nanoTime() - startedAt;
+                    totalWaitNanos.add(startedAt - submittedAt);
+                    totalHashNanos.add(hashNanos);
+                    maxHashNanos.accumulateAndGet(hashNanos, Math::max);
+                    completed.increment();
+                    if (!state.compareAndSet(RUNNING, DONE)) {
+                        abandonedInFlight.decrementAndGet();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing queue is full ({} queued)", executor.getQueue().size());
+            throw new ServiceBusyException("Authentication is busy, please retry shortly");
+        }
+        
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            abandon(state, future);
+            timedOut.increment();
+            throw new ServiceBusyException("Authentication is busy, please retry shortly");
+        } catch (InterruptedException e) {
+            abandon(state, future);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Password hashing was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+    
+    /**
+     * Give up on a call: queued work is dropped, while running work cannot be interrupted
+     * and is counted as in flight until it finishes
+     */
+    private void abandon(AtomicInteger state, Future<?> future) {
+        if (state.compareAndSet(QUEUED, ABANDONED)) {
+            executor.remove((Runnable) future);
+            return;
+        }
+        abandonedInFlight.incrementAndGet();
+        if (!state.compareAndSet(RUNNING, ABANDONED)) {
+            abandonedInFlight.decrementAndGet(); // finished in the meantime
+        }
+    }
+}
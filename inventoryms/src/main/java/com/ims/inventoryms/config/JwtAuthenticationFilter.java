@@ -2,6 +2,8 @@ package com.ims.inventoryms.config;
 
 import com.ims.inventoryms.service.JwtService;
 import com.ims.inventoryms.service.CustomUserDetailsService;
+import com.ims.inventoryms.service.UserStatusService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,6 +12,7 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -18,9 +21,12 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
 
 /**
- * JWT Authentication Filter for processing JWT tokens in requests
+ * JWT Authentication Filter for processing JWT tokens in requests.
+ * The authentication is built from the verified token's claims; only the user's
+ * account-status version is checked, through a short-lived cache.
  */
 @Component
 @RequiredArgsConstructor
@@ -29,6 +35,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final UserStatusService userStatusService;
     
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, 
@@ -38,16 +45,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = parseJwt(request);
             
             if (jwt != null) {
-                String username = jwtService.extractUsername(jwt);
+                // Verified once; expired or tampered tokens throw and leave the request unauthenticated
+                Claims claims = jwtService.parseClaims(jwt);
+                JwtPrincipal principal = jwtService.toPrincipal(claims);
                 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                if (jwtService.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (jwtService.isRefreshToken(claims)) {
+                    // Refresh tokens are only accepted by the refresh endpoint, never as a bearer token
+                    log.debug("Rejected refresh token of user {} used as an access token", claims.getSubject());
+                } else if (principal != null) {
+                    if (userStatusService.isCurrent(principal.userId(), principal.statusVersion())) {
+                        setAuthentication(request, principal, principal.getAuthorities());
+                    } else {
+                        log.debug("Rejected token of user {} issued before an account status change", principal.username());
+                    }
+                } else {
+                    // Access tokens issued before user claims were added are checked against the user
+                    // record; they stop arriving once the last of them passes jwt.expiration
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                    setAuthentication(request, userDetails, userDetails.getAuthorities());
                 }
             }
         } catch (Exception e) {
@@ -57,6 +72,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private void setAuthentication(HttpServletRequest request, Object principal,
+                                   Collection<? extends GrantedAuthority> authorities) {
+        UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+    
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         
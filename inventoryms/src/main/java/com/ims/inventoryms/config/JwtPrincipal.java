@@ -0,0 +1,24 @@
+package com.ims.inventoryms.config;
+
+import com.ims.inventoryms.entity.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Authenticated user built from the claims of a verified access token, without loading the user
+ */
+public record JwtPrincipal(Long userId, String username, Role.RoleName role, long statusVersion)
+        implements AuthenticatedPrincipal {
+    
+    @Override
+    public String getName() {
+        return username;
+    }
+    
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -1,25 +1,41 @@
 package com.ims.inventoryms.config;
 
+import com.ims.inventoryms.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
- * JWT utility class for token generation, validation, and extraction
+ * JWT utility class for token generation, validation, and extraction.
+ * The signing key and parser are built once and shared across threads. Tokens that
+ * pass verification are remembered by their SHA-256 digest until they expire, so
+ * repeated requests with the same token skip signature verification and parsing.
  */
 @Component
 @Slf4j
 public class JwtUtils {
     
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_STATUS_VERSION = "sv";
+    public static final String CLAIM_TOKEN_TYPE = "type";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+    
     @Value("${jwt.secret}")
     private String secret;
     
@@ -29,8 +45,27 @@ public class JwtUtils {
     @Value("${jwt.refresh.expiration}")
     private Long refreshExpiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.verified-cache.max-entries}")
+    private int verifiedCacheMaxEntries;
+    
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+    
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
     
     /**
@@ -56,14 +91,36 @@ public class JwtUtils {
     }
     
     /**
-     * Extract all claims from JWT token
+     * Verify a JWT token and return its claims
+     *
+     * @throws JwtException if the signature is invalid or the token has expired
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+    
+    /**
+     * Extract all claims from JWT token, verifying it unless it was verified recently
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String digest = HexFormat.of().formatHex(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null && now < cached.expiresAtMs()) {
+            return cached.claims();
+        }
+        
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            if (verifiedTokens.size() >= verifiedCacheMaxEntries) {
+                verifiedTokens.values().removeIf(entry -> entry.expiresAtMs() <= now);
+                if (verifiedTokens.size() >= verifiedCacheMaxEntries) {
+                    verifiedTokens.clear();
+                }
+            }
+            verifiedTokens.put(digest, new VerifiedToken(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
     }
     
     /**
@@ -78,15 +135,25 @@ public class JwtUtils {
      */
     public String generateAccessToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().getName().name());
+            claims.put(CLAIM_STATUS_VERSION, user.getStatusVersion());
+        }
         return createToken(claims, userDetails.getUsername(), expiration);
     }
     
     /**
-     * Generate refresh token for user
+     * Generate refresh token for user; it carries the status version so a password
+     * change or deactivation revokes it along with the access tokens
      */
     public String generateRefreshToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
+        claims.put(CLAIM_TOKEN_TYPE, TOKEN_TYPE_REFRESH);
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_STATUS_VERSION, user.getStatusVersion());
+        }
         return createToken(claims, userDetails.getUsername(), refreshExpiration);
     }
     
@@ -99,7 +166,7 @@ public class JwtUtils {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
@@ -108,8 +175,8 @@ public class JwtUtils {
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            final Claims claims = extractAllClaims(token);
+            return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
         } catch (JwtException | IllegalArgumentException e) {
             log.error("JWT token validation failed: {}", e.getMessage());
             return false;
@@ -121,14 +188,20 @@ public class JwtUtils {
      */
     public Boolean isRefreshToken(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            return "refresh".equals(claims.get("type"));
+            return isRefreshToken(extractAllClaims(token));
         } catch (JwtException | IllegalArgumentException e) {
             log.error("Failed to check token type: {}", e.getMessage());
             return false;
         }
     }
     
+    /**
+     * Check if verified claims belong to a refresh token
+     */
+    public static boolean isRefreshToken(Claims claims) {
+        return TOKEN_TYPE_REFRESH.equals(claims.get(CLAIM_TOKEN_TYPE));
+    }
+    
     /**
      * Get token expiration time in seconds
      */
@@ -147,5 +220,10 @@ public class JwtUtils {
             return true;
         }
     }
+    
+    /**
+     * Claims of a verified token and when the token expires
+     */
+    private record VerifiedToken(Claims claims, long expiresAtMs) {
+    }
 }
-
@@ -0,0 +1,12 @@
+package com.ims.inventoryms.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background jobs (archival, rollups, refreshers)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
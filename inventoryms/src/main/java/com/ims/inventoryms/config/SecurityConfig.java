@@ -14,7 +14,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -39,9 +38,22 @@ public class SecurityConfig {
     @Value("${cors.allowed.origins}")
     private String allowedOrigins;
     
+    @Value("${security.password-hashing.threads}")
+    private int passwordHashingThreads;
+    
+    @Value("${security.password-hashing.queue-capacity}")
+    private int passwordHashingQueueCapacity;
+    
+    @Value("${security.password-hashing.max-wait-ms}")
+    private long passwordHashingMaxWaitMs;
+    
+    /**
+     * BCrypt runs on its own bounded pool so hashing load cannot starve request threads
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingThreads,
+                passwordHashingQueueCapacity, passwordHashingMaxWaitMs);
     }
     
     @Bean
@@ -67,6 +79,7 @@ public class SecurityConfig {
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
+                .requestMatchers("/api/health/password-hashing").hasRole("ADMIN")
                 .requestMatchers("/api/health/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/categories/**").permitAll()
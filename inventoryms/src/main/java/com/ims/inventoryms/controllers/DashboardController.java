@@ -1,7 +1,11 @@
 package com.ims.inventoryms.controllers;
 
 import com.ims.inventoryms.dto.*;
+import com.ims.inventoryms.entity.Order;
 import com.ims.inventoryms.service.DashboardService;
+import com.ims.inventoryms.service.DashboardSnapshotService;
+import com.ims.inventoryms.service.SalesCubeService;
+import com.ims.inventoryms.service.SalesLeaderboardService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -23,6 +27,8 @@ import java.time.LocalDate;
 public class DashboardController {
     
     private final DashboardService dashboardService;
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final SalesLeaderboardService salesLeaderboardService;
     
     /**
      * Get inventory dashboard (Manager/Admin only)
@@ -32,7 +38,7 @@ public class DashboardController {
     public ResponseEntity<InventoryDashboardResponse> getInventoryDashboard() {
         log.info("Fetching inventory dashboard data");
         
-        InventoryDashboardResponse dashboard = dashboardService.getInventoryDashboard();
+        InventoryDashboardResponse dashboard = dashboardSnapshotService.getInventoryDashboard();
         
         return ResponseEntity.ok(dashboard);
     }
@@ -46,11 +52,65 @@ public class DashboardController {
             @RequestParam(defaultValue = "30") int period) {
         log.info("Fetching sales dashboard data for period: {} days", period);
         
-        SalesDashboardResponse dashboard = dashboardService.getSalesDashboard(period);
+        SalesDashboardResponse dashboard = dashboardSnapshotService.getSalesDashboard(period);
         
         return ResponseEntity.ok(dashboard);
     }
     
+    /**
+     * Slice and roll up the sales cube (Sales/Manager/Admin only)
+     */
+    @GetMapping("/sales/cube")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES')")
+    public ResponseEntity<SalesCubeResponse> getSalesCube(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Order.OrderStatus orderStatus,
+            @RequestParam(required = false) Order.PaymentStatus paymentStatus,
+            @RequestParam(required = false) Order.PaymentMethod paymentMethod,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) SalesCubeService.Dimension groupBy) {
+        log.info("Fetching sales cube from {} to {} grouped by {}", startDate, endDate, groupBy);
+        
+        SalesCubeService.Slice slice = new SalesCubeService.Slice(
+                startDate, endDate, orderStatus, paymentStatus, paymentMethod, categoryId);
+        SalesCubeResponse cube = dashboardService.getSalesCube(slice, groupBy);
+        
+        return ResponseEntity.ok(cube);
+    }
+    
+    /**
+     * Get live per-minute sales for the recent window (Sales/Manager/Admin only)
+     */
+    @GetMapping("/sales/live")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES')")
+    public ResponseEntity<LiveSalesResponse> getLiveSales(
+            @RequestParam(defaultValue = "60") int minutes,
+            @RequestParam(defaultValue = "1") int bucketMinutes) {
+        log.debug("Fetching live sales for the last {} minutes in {} minute buckets", minutes, bucketMinutes);
+        
+        LiveSalesResponse live = dashboardService.getLiveSales(minutes, bucketMinutes);
+        
+        return ResponseEntity.ok(live);
+    }
+    
+    /**
+     * Rank sales reps over a period (Manager/Admin only)
+     */
+    @GetMapping("/manager/sales/leaderboard")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<SalesLeaderboardResponse> getSalesLeaderboard(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "REVENUE") SalesLeaderboardService.Metric rankBy,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Fetching sales leaderboard from {} to {} ranked by {}", startDate, endDate, rankBy);
+        
+        SalesLeaderboardResponse leaderboard = salesLeaderboardService.getLeaderboard(startDate, endDate, rankBy, limit);
+        
+        return ResponseEntity.ok(leaderboard);
+    }
+    
     /**
      * Get low stock alerts (Manager/Admin only)
      */
@@ -1,8 +1,10 @@
 package com.ims.inventoryms.controllers;
 
+import com.ims.inventoryms.config.BoundedPasswordEncoder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import javax.sql.DataSource;
@@ -22,6 +24,7 @@ import java.util.Map;
 public class HealthController {
     
     private final DataSource dataSource;
+    private final BoundedPasswordEncoder passwordEncoder;
     
     /**
      * Application health check
@@ -68,4 +71,18 @@ public class HealthController {
         
         return ResponseEntity.ok(dbHealth);
     }
+    
+    /**
+     * Password hashing pool latency and queue depth; admin only, as it exposes authentication load
+     */
+    @GetMapping("/health/password-hashing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> passwordHashingHealth() {
+        log.debug("Password hashing health check requested");
+        
+        Map<String, Object> hashingHealth = new HashMap<>(passwordEncoder.getMetrics());
+        hashingHealth.put("timestamp", LocalDateTime.now());
+        
+        return ResponseEntity.ok(hashingHealth);
+    }
 }
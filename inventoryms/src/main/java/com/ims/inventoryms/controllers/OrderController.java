@@ -60,6 +60,19 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
     
+    /**
+     * Get order by order number (Sales/Manager/Admin only)
+     */
+    @GetMapping("/sales/orders/number/{orderNumber}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES')")
+    public ResponseEntity<OrderResponse> getOrderByNumber(@PathVariable String orderNumber) {
+        log.info("Fetching order by number: {}", orderNumber);
+        
+        OrderResponse order = orderService.getOrderByNumber(orderNumber);
+        
+        return ResponseEntity.ok(order);
+    }
+    
     /**
      * Create new order (Sales/Manager/Admin only)
      */
@@ -2,8 +2,13 @@ package com.ims.inventoryms.controllers;
 
 import com.ims.inventoryms.dto.ProductRequest;
 import com.ims.inventoryms.dto.ProductResponse;
+import com.ims.inventoryms.dto.ReorderSuggestionResponse;
 import com.ims.inventoryms.dto.StockUpdateRequest;
+import com.ims.inventoryms.dto.TrendingProductResponse;
+import com.ims.inventoryms.entity.Product;
+import com.ims.inventoryms.service.DemandForecastService;
 import com.ims.inventoryms.service.ProductService;
+import com.ims.inventoryms.service.TrendingProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,17 +34,21 @@ import java.util.List;
 public class ProductController {
     
     private final ProductService productService;
+    private final DemandForecastService demandForecastService;
+    private final TrendingProductService trendingProductService;
     
     /**
      * Get all products (Public)
      */
     @GetMapping("/products")
     public ResponseEntity<Page<ProductResponse>> getAllProducts(
+            @RequestParam(required = false) Product.AbcClass abcClass,
+            @RequestParam(required = false) Product.VelocityClass velocityClass,
             @PageableDefault(size = 10, sort = "name") Pageable pageable) {
         
         log.info("Fetching all products with pagination: {}", pageable);
         
-        Page<ProductResponse> products = productService.getAllProducts(pageable);
+        Page<ProductResponse> products = productService.getAllProducts(abcClass, velocityClass, pageable);
         
         return ResponseEntity.ok(products);
     }
@@ -67,11 +76,14 @@ public class ProductController {
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) String brand,
             @RequestParam(required = false) String supplier,
+            @RequestParam(required = false) Product.AbcClass abcClass,
+            @RequestParam(required = false) Product.VelocityClass velocityClass,
             @PageableDefault(size = 10, sort = "name") Pageable pageable) {
         
         log.info("Searching products with query: {}, categoryId: {}", query, categoryId);
         
-        Page<ProductResponse> products = productService.searchProducts(query, categoryId, minPrice, maxPrice, brand, supplier, pageable);
+        Page<ProductResponse> products = productService.searchProducts(query, categoryId, minPrice, maxPrice, brand, supplier,
+                abcClass, velocityClass, pageable);
         
         return ResponseEntity.ok(products);
     }
@@ -143,10 +155,11 @@ public class ProductController {
      */
     @GetMapping("/products/category/{categoryId}")
     public ResponseEntity<Page<ProductResponse>> getProductsByCategory(@PathVariable Long categoryId,
+                                                                      @RequestParam(defaultValue = "false") boolean includeDescendants,
                                                                       @PageableDefault(size = 10, sort = "name") Pageable pageable) {
-        log.info("Fetching products by category ID: {}", categoryId);
+        log.info("Fetching products by category ID: {} (including descendants: {})", categoryId, includeDescendants);
         
-        Page<ProductResponse> products = productService.getProductsByCategory(categoryId, pageable);
+        Page<ProductResponse> products = productService.getProductsByCategory(categoryId, includeDescendants, pageable);
         
         return ResponseEntity.ok(products);
     }
@@ -164,6 +177,20 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
     
+    /**
+     * Get forecast-based reorder suggestions (Manager/Admin only)
+     */
+    @GetMapping("/manager/products/reorder-suggestions")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<Page<ReorderSuggestionResponse>> getReorderSuggestions(
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("Fetching reorder suggestions");
+        
+        Page<ReorderSuggestionResponse> suggestions = demandForecastService.getReorderSuggestions(pageable);
+        
+        return ResponseEntity.ok(suggestions);
+    }
+    
     /**
      * Get out of stock products (Manager/Admin only)
      */
@@ -189,6 +216,19 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
     
+    /**
+     * Get trending products by recent, time-decayed sales (Public)
+     */
+    @GetMapping("/products/trending")
+    public ResponseEntity<List<TrendingProductResponse>> getTrendingProducts(
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Fetching top {} trending products", limit);
+        
+        List<TrendingProductResponse> products = trendingProductService.getTrendingProducts(limit);
+        
+        return ResponseEntity.ok(products);
+    }
+    
     /**
      * Get recently added products (Public)
      */
@@ -0,0 +1,88 @@
+package com.ims.inventoryms.controllers;
+
+import com.ims.inventoryms.dto.ReportJobRequest;
+import com.ims.inventoryms.dto.ReportJobResponse;
+import com.ims.inventoryms.service.ReportJobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+
+/**
+ * REST controller for asynchronous report jobs
+ */
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ReportController {
+    
+    private final ReportJobService reportJobService;
+    
+    /**
+     * Submit a report job (Sales/Manager/Admin only)
+     */
+    @PostMapping("/sales/reports")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES')")
+    public ResponseEntity<ReportJobResponse> submitReport(@Valid @RequestBody ReportJobRequest request) {
+        log.info("Submitting {} report from {} to {}", request.getReportType(), request.getStartDate(), request.getEndDate());
+        
+        ReportJobResponse job = reportJobService.submit(request);
+        
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+    
+    /**
+     * Get report job status (Sales/Manager/Admin only)
+     */
+    @GetMapping("/sales/reports/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES')")
+    public ResponseEntity<ReportJobResponse> getReport(@PathVariable Long id) {
+        log.debug("Fetching report job with ID: {}", id);
+        
+        ReportJobResponse job = reportJobService.getJob(id);
+        
+        return ResponseEntity.ok(job);
+    }
+    
+    /**
+     * Download a completed report as gzip-compressed JSON (Sales/Manager/Admin only)
+     */
+    @GetMapping("/sales/reports/{id}/download")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES')")
+    public ResponseEntity<Resource> downloadReport(@PathVariable Long id) {
+        log.info("Downloading report job with ID: {}", id);
+        
+        Path file = reportJobService.getResultFile(id);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+    
+    /**
+     * Cancel a queued or running report job (Sales/Manager/Admin only)
+     */
+    @PutMapping("/sales/reports/{id}/cancel")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES')")
+    public ResponseEntity<ReportJobResponse> cancelReport(@PathVariable Long id) {
+        log.info("Cancelling report job with ID: {}", id);
+        
+        ReportJobResponse job = reportJobService.cancel(id);
+        
+        return ResponseEntity.ok(job);
+    }
+}
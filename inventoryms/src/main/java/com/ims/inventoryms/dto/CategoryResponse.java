@@ -24,6 +24,8 @@ public class CategoryResponse {
     private String parentCategoryName;
     private List<CategoryResponse> subCategories;
     private Long productCount;
+    private Integer subCategoryCount;
+    private Long subtreeProductCount;
     private Boolean isActive;
     private Boolean hasParent;
     private Boolean hasSubCategories;
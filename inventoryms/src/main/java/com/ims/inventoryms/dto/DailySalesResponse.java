@@ -19,4 +19,6 @@ public class DailySalesResponse {
     
     private LocalDate date;
     private BigDecimal sales;
+    private long orderCount;
+    private long itemsSold;
 }
@@ -6,13 +6,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO for inventory dashboard response
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class InventoryDashboardResponse {
@@ -22,6 +24,11 @@ public class InventoryDashboardResponse {
     private long lowStockCount;
     private long outOfStockCount;
     private BigDecimal totalInventoryValue;
+    private Map<Long, BigDecimal> inventoryValueByCategory;
+    private Map<String, BigDecimal> inventoryValueBySupplier;
+    private LocalDateTime snapshotTakenAt;
+    private long snapshotAgeMs;
+    private List<String> unavailableSections;
     private List<ProductSummary> lowStockProducts;
     private List<ProductSummary> outOfStockProducts;
     private List<ProductSummary> topSellingProducts;
@@ -0,0 +1,31 @@
+package com.ims.inventoryms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for live per-minute sales response; series are oldest first
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveSalesResponse {
+    
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private int minutes;
+    private int bucketMinutes;
+    private long[] orders;
+    private long[] revenueCents;
+    private long[] units;
+    private long totalOrders;
+    private BigDecimal totalRevenue;
+    private long totalUnits;
+    private double ordersPerMinute;
+}
@@ -1,5 +1,6 @@
 package com.ims.inventoryms.dto;
 
+import com.ims.inventoryms.entity.Product;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -38,6 +39,9 @@ public class ProductResponse {
     private Boolean isOverstocked;
     private BigDecimal profitMargin;
     private BigDecimal profitAmount;
+    private Product.AbcClass abcClass;
+    private Product.VelocityClass velocityClass;
+    private LocalDateTime classifiedAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
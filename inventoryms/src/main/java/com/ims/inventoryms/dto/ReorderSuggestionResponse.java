@@ -0,0 +1,27 @@
+package com.ims.inventoryms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a forecast-based reorder suggestion
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderSuggestionResponse {
+    
+    private Long productId;
+    private String productName;
+    private String sku;
+    private Integer stockQuantity;
+    private Integer minStockLevel;
+    private Integer maxStockLevel;
+    private double dailyDemand;
+    private int reorderPoint;
+    private int orderUpToLevel;
+    private int suggestedOrderQuantity;
+}
@@ -0,0 +1,33 @@
+package com.ims.inventoryms.dto;
+
+import com.ims.inventoryms.entity.ReportJob;
+import com.ims.inventoryms.service.SalesCubeService;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for report job submission requests
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequest {
+    
+    @NotNull(message = "Report type is required")
+    private ReportJob.ReportType reportType;
+    
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+    
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+    
+    // Sales cube reports only
+    private SalesCubeService.Dimension groupBy;
+    
+    private ReportJob.Priority priority = ReportJob.Priority.NORMAL;
+}
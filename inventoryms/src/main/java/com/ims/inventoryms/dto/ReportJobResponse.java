@@ -0,0 +1,40 @@
+package com.ims.inventoryms.dto;
+
+import com.ims.inventoryms.entity.ReportJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for report job response data
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobResponse {
+    
+    private Long id;
+    private ReportJob.ReportType reportType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String groupBy;
+    private ReportJob.Priority priority;
+    private ReportJob.Status status;
+    private String requestedBy;
+    // Node that holds the result; downloads must be served by it
+    private String nodeId;
+    private Long resultSize;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+    // True when an identical queued, running or completed job was returned instead of a new one
+    private boolean reused;
+    private String downloadUrl;
+}
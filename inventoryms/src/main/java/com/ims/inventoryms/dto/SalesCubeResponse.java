@@ -0,0 +1,41 @@
+package com.ims.inventoryms.dto;
+
+import com.ims.inventoryms.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * DTO for sales cube slice response
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesCubeResponse {
+    
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Order.OrderStatus orderStatus;
+    private Order.PaymentStatus paymentStatus;
+    private Order.PaymentMethod paymentMethod;
+    private Long categoryId;
+    private String groupBy;
+    private Cell total;
+    private Map<String, Cell> groups;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cell {
+        private long orders;
+        private BigDecimal revenue;
+        private long units;
+    }
+}
@@ -14,7 +14,7 @@ import java.util.Map;
  * DTO for sales dashboard response
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class SalesDashboardResponse {
@@ -29,6 +29,13 @@ public class SalesDashboardResponse {
     private List<OrderSummary> recentOrders;
     private List<DailySalesResponse> dailySales;
     private Map<String, Long> salesByPaymentMethod;
+    private long uniqueCustomers;
+    private List<TopProduct> topProducts;
+    private Percentiles orderValuePercentiles;
+    private Percentiles basketSizePercentiles;
+    private LocalDateTime snapshotTakenAt;
+    private long snapshotAgeMs;
+    private List<String> unavailableSections;
     
     @Data
     @Builder
@@ -43,4 +50,24 @@ public class SalesDashboardResponse {
         private com.ims.inventoryms.entity.Order.PaymentStatus paymentStatus;
         private LocalDateTime orderDate;
     }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TopProduct {
+        private Long productId;
+        private String productName;
+        private long estimatedUnits;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Percentiles {
+        private Double p50;
+        private Double p90;
+        private Double p99;
+    }
 }
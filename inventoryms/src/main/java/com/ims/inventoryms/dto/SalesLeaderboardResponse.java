@@ -0,0 +1,42 @@
+package com.ims.inventoryms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for sales rep leaderboard response
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesLeaderboardResponse {
+    
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String rankedBy;
+    private List<Entry> entries;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private int rank;
+        private Long userId;
+        private String username;
+        private String fullName;
+        private long orders;
+        private BigDecimal revenue;
+        private long units;
+        private long cancellations;
+        private double cancellationRate;
+        private BigDecimal averageOrderValue;
+    }
+}
@@ -0,0 +1,25 @@
+package com.ims.inventoryms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for trending product response
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingProductResponse {
+    
+    private Long productId;
+    private String productName;
+    private String sku;
+    private BigDecimal price;
+    private String categoryName;
+    private double trendingScore;
+}
@@ -47,6 +47,25 @@ public class Category {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
     
+    // Counters maintained by CategoryService and ProductService writes through native updates
+    // and recomputed by the repair job, so they are never written through the entity
+    @Column(name = "active_product_count", insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long activeProductCount = 0L;
+    
+    @Column(name = "sub_category_count", insertable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    private Integer subCategoryCount = 0;
+    
+    // Rollups over the whole subtree below the category
+    @Column(name = "descendant_count", insertable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    private Integer descendantCount = 0;
+    
+    @Column(name = "subtree_product_count", insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long subtreeProductCount = 0L;
+    
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
     
@@ -0,0 +1,41 @@
+package com.ims.inventoryms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Closure table of the category hierarchy: one row per ancestor/descendant pair,
+ * including each category paired with itself at depth 0.
+ * Maintained by CategoryService on create, move and delete.
+ */
+@Entity
+@Table(name = "category_closure", indexes = @Index(name = "idx_category_closure_descendant", columnList = "descendant_id, depth"))
+@IdClass(CategoryClosure.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryClosure {
+    
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+    
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+    
+    @Column(name = "depth", nullable = false)
+    private Integer depth;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ims.inventoryms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per-day totals of completed (delivered and paid) orders, keyed by order date.
+ * Maintained incrementally as orders move into or out of the completed state.
+ */
+@Entity
+@Table(name = "daily_sales_rollup")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesRollup {
+    
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+    
+    @Column(name = "completed_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal completedRevenue = BigDecimal.ZERO;
+    
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+    
+    @Column(name = "items_sold", nullable = false)
+    private Long itemsSold = 0L;
+}
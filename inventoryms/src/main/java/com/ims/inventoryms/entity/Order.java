@@ -7,6 +7,7 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -17,12 +18,24 @@ import java.util.List;
  * Order entity representing sales transactions in the inventory system
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer_email_key", columnList = "customer_email_key"),
+        @Index(name = "idx_orders_customer_phone_key", columnList = "customer_phone_key"),
+        @Index(name = "idx_orders_customer_name", columnList = "customer_name"),
+        @Index(name = "idx_orders_order_date", columnList = "order_date"),
+        @Index(name = "idx_orders_status_payment_date", columnList = "order_status, payment_status, order_date"),
+        @Index(name = "idx_orders_user_date", columnList = "user_id, order_date")
+})
+@NamedEntityGraph(name = Order.WITH_ITEMS_AND_PRODUCTS,
+        attributeNodes = @NamedAttributeNode(value = "orderItems", subgraph = "items"),
+        subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
     
+    public static final String WITH_ITEMS_AND_PRODUCTS = "Order.withItemsAndProducts";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -48,6 +61,12 @@ public class Order {
     @Column(name = "customer_phone", length = 15)
     private String customerPhone;
     
+    @Column(name = "customer_email_key", length = 500)
+    private String customerEmailKey; // Case-folded email used for indexed lookups
+    
+    @Column(name = "customer_phone_key", length = 15)
+    private String customerPhoneKey; // Digits-only phone used for indexed lookups
+    
     @Size(max = 500, message = "Shipping address must not exceed 500 characters")
     @Column(name = "shipping_address", length = 500)
     private String shippingAddress;
@@ -81,6 +100,7 @@ public class Order {
     private BigDecimal totalAmount = BigDecimal.ZERO;
     
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private List<OrderItem> orderItems = new ArrayList<>();
     
     @Size(max = 500, message = "Notes must not exceed 500 characters")
@@ -112,11 +132,18 @@ public class Order {
         if (orderNumber == null) {
             orderNumber = generateOrderNumber();
         }
+        updateLookupKeys();
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        updateLookupKeys();
+    }
+    
+    private void updateLookupKeys() {
+        customerEmailKey = normalizeEmail(customerEmail);
+        customerPhoneKey = normalizePhone(customerPhone);
     }
     
     private String generateOrderNumber() {
@@ -152,6 +179,27 @@ public class Order {
         return orderStatus == OrderStatus.CANCELLED;
     }
     
+    /**
+     * Normalize an email address into its lookup key
+     */
+    public static String normalizeEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(java.util.Locale.ROOT);
+    }
+    
+    /**
+     * Normalize a phone number into its digits-only lookup key
+     */
+    public static String normalizePhone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String digits = phone.replaceAll("[^0-9]", "");
+        return digits.isEmpty() ? null : digits;
+    }
+    
     public enum OrderStatus {
         PENDING("Pending"),
         CONFIRMED("Confirmed"),
@@ -9,12 +9,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /**
  * OrderItem entity representing individual items within an order
  */
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order_date", columnList = "order_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -51,6 +54,22 @@ public class OrderItem {
     @Column(name = "notes", length = 500)
     private String notes;
     
+    @Column(name = "order_date")
+    private LocalDateTime orderDate; // Copied from the order so order_items can be partitioned alongside orders
+    
+    @Column(name = "category_id")
+    private Long categoryId; // Product category when the order was placed, so later moves don't rewrite sales history
+    
+    @PrePersist
+    protected void onCreate() {
+        if (orderDate == null && order != null) {
+            orderDate = order.getOrderDate();
+        }
+        if (categoryId == null && product != null && product.getCategory() != null) {
+            categoryId = product.getCategory().getId();
+        }
+    }
+    
     // Helper methods
     public BigDecimal getSubtotal() {
         return price.multiply(BigDecimal.valueOf(quantity));
@@ -0,0 +1,122 @@
+package com.ims.inventoryms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Denormalized order read model used by the order list and search endpoints.
+ * One row per order with its line items embedded as a snapshot, so a page of
+ * orders is served by a single query without touching order_items or products.
+ */
+@Entity
+@Table(name = "order_read_model", indexes = {
+        @Index(name = "idx_orm_order_date", columnList = "order_date"),
+        @Index(name = "idx_orm_status_date", columnList = "order_status, order_date"),
+        @Index(name = "idx_orm_customer_name", columnList = "customer_name"),
+        @Index(name = "idx_orm_customer_email_key", columnList = "customer_email_key"),
+        @Index(name = "idx_orm_customer_phone_key", columnList = "customer_phone_key")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderReadModel {
+
+    @Id
+    @Column(name = "order_id")
+    private Long id; // Same id as the source order
+
+    @Column(name = "order_number", unique = true, length = 50)
+    private String orderNumber;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "customer_name", length = 200)
+    private String customerName;
+
+    @Column(name = "customer_email", length = 500)
+    private String customerEmail;
+
+    @Column(name = "customer_phone", length = 15)
+    private String customerPhone;
+
+    @Column(name = "customer_email_key", length = 500)
+    private String customerEmailKey;
+
+    @Column(name = "customer_phone_key", length = 15)
+    private String customerPhoneKey;
+
+    @Column(name = "shipping_address", length = 500)
+    private String shippingAddress;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_status", nullable = false, length = 20)
+    private Order.OrderStatus orderStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false, length = 20)
+    private Order.PaymentStatus paymentStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", length = 20)
+    private Order.PaymentMethod paymentMethod;
+
+    @Column(name = "subtotal", precision = 10, scale = 2)
+    private BigDecimal subtotal;
+
+    @Column(name = "tax_amount", precision = 10, scale = 2)
+    private BigDecimal taxAmount;
+
+    @Column(name = "discount_amount", precision = 10, scale = 2)
+    private BigDecimal discountAmount;
+
+    @Column(name = "total_amount", precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "notes", length = 500)
+    private String notes;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Column(name = "shipped_date")
+    private LocalDateTime shippedDate;
+
+    @Column(name = "delivered_date")
+    private LocalDateTime deliveredDate;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "line_items", columnDefinition = "json")
+    private List<LineSnapshot> lineItems = new ArrayList<>();
+
+    /**
+     * Snapshot of an order line at the time the read model was refreshed
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineSnapshot {
+        private Long id;
+        private Long productId;
+        private String productName;
+        private Integer quantity;
+        private BigDecimal price;
+        private BigDecimal discountAmount;
+        private String notes;
+    }
+}
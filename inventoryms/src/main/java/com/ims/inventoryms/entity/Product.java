@@ -19,7 +19,11 @@ import java.util.List;
  * Product entity representing items in the inventory system
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_abc_class", columnList = "abc_class"),
+    @Index(name = "idx_products_velocity_class", columnList = "velocity_class")
+})
+@EntityListeners(ProductValuationListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -95,12 +99,27 @@ public class Product {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
     
+    // Written by the classification job through native updates, so product saves never overwrite it
+    @Enumerated(EnumType.STRING)
+    @Column(name = "abc_class", length = 1, insertable = false, updatable = false)
+    private AbcClass abcClass;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "velocity_class", length = 10, insertable = false, updatable = false)
+    private VelocityClass velocityClass;
+    
+    @Column(name = "classified_at", insertable = false, updatable = false)
+    private LocalDateTime classifiedAt;
+    
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Inventory valuation as last loaded or written, used to compute running aggregate deltas
+    private transient ProductValuationListener.Valuation valuation;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -150,4 +169,18 @@ public class Product {
     public void setIsActive(boolean isActive) {
         this.isActive = isActive;
     }
+    
+    /**
+     * Revenue contribution class: by default A products make up the first 80% of revenue, B the next 15%
+     */
+    public enum AbcClass {
+        A, B, C
+    }
+    
+    /**
+     * Sales velocity class over the classification window
+     */
+    public enum VelocityClass {
+        FAST, SLOW, DEAD
+    }
 }
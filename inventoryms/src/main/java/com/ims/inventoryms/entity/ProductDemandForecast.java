@@ -0,0 +1,53 @@
+package com.ims.inventoryms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Exponentially smoothed daily demand of one product.
+ * Units of the day in progress accumulate in currentDayUnits; the smoothed level and
+ * variance only advance when a later day is seen, so each order line is O(1).
+ */
+@Entity
+@Table(name = "product_demand_forecasts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDemandForecast {
+    
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+    
+    @Column(name = "daily_demand", nullable = false)
+    private Double dailyDemand = 0.0;
+    
+    @Column(name = "demand_variance", nullable = false)
+    private Double demandVariance = 0.0;
+    
+    @Column(name = "current_day", nullable = false)
+    private LocalDate currentDay;
+    
+    @Column(name = "current_day_units", nullable = false)
+    private Long currentDayUnits = 0L;
+    
+    @Column(name = "reorder_point", nullable = false)
+    private Integer reorderPoint = 0;
+    
+    @Column(name = "order_up_to_level", nullable = false)
+    private Integer orderUpToLevel = 0;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public ProductDemandForecast(Long productId, LocalDate currentDay) {
+        this.productId = productId;
+        this.currentDay = currentDay;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
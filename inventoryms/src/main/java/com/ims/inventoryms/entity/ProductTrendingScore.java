@@ -0,0 +1,31 @@
+package com.ims.inventoryms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A product's exponentially decayed trending score, as of scored_at, shared by all nodes.
+ * Each node periodically adds the units ordered through it since its last checkpoint.
+ * Product id 0 marks that the scores were seeded from past orders.
+ */
+@Entity
+@Table(name = "product_trending_scores")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductTrendingScore {
+    
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+    
+    @Column(name = "score", nullable = false)
+    private Double score;
+    
+    @Column(name = "scored_at", nullable = false)
+    private LocalDateTime scoredAt;
+}
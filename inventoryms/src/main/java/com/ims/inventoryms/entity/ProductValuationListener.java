@@ -0,0 +1,69 @@
+package com.ims.inventoryms.entity;
+
+import com.ims.inventoryms.service.InventoryValuationService;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * JPA listener that turns product writes into inventory valuation deltas.
+ * The valuation a product had when it was loaded is remembered on the entity, so
+ * stock, cost, category, supplier and active-flag changes from any code path are caught.
+ */
+@Component
+public class ProductValuationListener {
+    
+    private final ObjectProvider<InventoryValuationService> valuationService;
+    
+    public ProductValuationListener(ObjectProvider<InventoryValuationService> valuationService) {
+        this.valuationService = valuationService;
+    }
+    
+    @PostLoad
+    public void onLoad(Product product) {
+        product.setValuation(Valuation.of(product));
+    }
+    
+    @PostPersist
+    @PostUpdate
+    public void onWrite(Product product) {
+        Valuation previous = product.getValuation();
+        Valuation current = Valuation.of(product);
+        if (!current.equals(previous)) {
+            valuationService.getObject().applyChange(previous, current);
+        }
+        product.setValuation(current);
+    }
+    
+    @PostRemove
+    public void onRemove(Product product) {
+        valuationService.getObject().applyChange(product.getValuation(), null);
+        product.setValuation(null);
+    }
+    
+    /**
+     * Inventory value contributed by one product, in cents
+     */
+    public record Valuation(Long categoryId, String supplier, long valueCents) {
+        
+        static Valuation of(Product product) {
+            long valueCents = 0;
+            if (Boolean.TRUE.equals(product.getIsActive()) && product.getCostPrice() != null && product.getStockQuantity() != null) {
+                valueCents = product.getCostPrice()
+                        .multiply(BigDecimal.valueOf(product.getStockQuantity()))
+                        .setScale(2, RoundingMode.HALF_UP)
+                        .unscaledValue()
+                        .longValue();
+            }
+            Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+            return new Valuation(categoryId, Objects.requireNonNullElse(product.getSupplier(), ""), valueCents);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ims.inventoryms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Asynchronously generated report. The spec hash identifies jobs with identical
+ * parameters so that a finished result can be reused until it expires. A job runs on
+ * the node it was submitted to, which also holds its result file.
+ */
+@Entity
+@Table(name = "report_jobs", indexes = {
+    @Index(name = "idx_report_jobs_spec_hash", columnList = "spec_hash, status"),
+    @Index(name = "idx_report_jobs_status_expires", columnList = "status, expires_at"),
+    @Index(name = "idx_report_jobs_node_status", columnList = "node_id, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "report_type", nullable = false, length = 30)
+    private ReportType reportType;
+    
+    @Column(name = "start_date")
+    private LocalDate startDate;
+    
+    @Column(name = "end_date")
+    private LocalDate endDate;
+    
+    @Column(name = "group_by", length = 30)
+    private String groupBy;
+    
+    @Column(name = "spec_hash", nullable = false, length = 64)
+    private String specHash;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", nullable = false, length = 10)
+    private Priority priority = Priority.NORMAL;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status = Status.QUEUED;
+    
+    @Column(name = "requested_by", length = 50)
+    private String requestedBy;
+    
+    // Node that runs the job and stores its result
+    @Column(name = "node_id", length = 64)
+    private String nodeId;
+    
+    @Column(name = "result_path", length = 500)
+    private String resultPath;
+    
+    // Compressed size of the result file in bytes
+    @Column(name = "result_size")
+    private Long resultSize;
+    
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+    
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    public boolean isFinished() {
+        return status != Status.QUEUED && status != Status.RUNNING;
+    }
+    
+    public enum ReportType {
+        SALES_ANALYTICS,
+        SALES_CUBE
+    }
+    
+    public enum Priority {
+        LOW, NORMAL, HIGH
+    }
+    
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED,
+        EXPIRED
+    }
+}
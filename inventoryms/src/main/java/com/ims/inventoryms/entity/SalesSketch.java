@@ -0,0 +1,51 @@
+package com.ims.inventoryms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Serialized streaming sketch for one day, written by one application node.
+ * Rows of different nodes for the same day and type are merged at query time.
+ */
+@Entity
+@Table(name = "sales_sketches",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"sales_date", "node_id", "sketch_type"}),
+       indexes = @Index(name = "idx_sales_sketches_type_date", columnList = "sketch_type, sales_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesSketch {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+    
+    @Column(name = "node_id", nullable = false, length = 64)
+    private String nodeId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sketch_type", nullable = false, length = 32)
+    private SketchType sketchType;
+    
+    @Lob
+    @Column(name = "payload", nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] payload;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public enum SketchType {
+        CUSTOMERS,
+        PRODUCTS,
+        ORDER_VALUE,
+        BASKET_SIZE
+    }
+}
@@ -78,6 +78,10 @@ public class User implements UserDetails {
     @Column(name = "is_credentials_non_expired", nullable = false)
     private Boolean isCredentialsNonExpired = true;
     
+    // Incremented whenever a change must invalidate tokens already issued to the user
+    @Column(name = "status_version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long statusVersion = 0L;
+    
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
     
@@ -138,6 +142,10 @@ public class User implements UserDetails {
         return role != null && role.getName() == Role.RoleName.SALES;
     }
     
+    public void bumpStatusVersion() {
+        statusVersion = (statusVersion != null ? statusVersion : 0L) + 1;
+    }
+    
     public void setLastLogin(LocalDateTime lastLogin) {
         this.lastLogin = lastLogin;
     }
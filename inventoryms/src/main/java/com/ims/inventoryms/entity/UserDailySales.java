@@ -0,0 +1,51 @@
+package com.ims.inventoryms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per-sales-rep daily totals, keyed by the rep (Order.user) and order date.
+ * Revenue and units are net of cancellations; orders counts every order placed.
+ */
+@Entity
+@Table(name = "user_daily_sales", indexes = @Index(name = "idx_user_daily_sales_date", columnList = "sales_date"))
+@IdClass(UserDailySales.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDailySales {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+    
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+    
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+    
+    @Column(name = "units", nullable = false)
+    private Long units = 0L;
+    
+    @Column(name = "cancellations", nullable = false)
+    private Long cancellations = 0L;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate salesDate;
+    }
+}
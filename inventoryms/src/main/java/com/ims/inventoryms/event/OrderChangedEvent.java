@@ -0,0 +1,142 @@
+package com.ims.inventoryms.event;
+
+import com.ims.inventoryms.entity.Order;
+import com.ims.inventoryms.entity.OrderItem;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Event published by OrderService whenever an order is created or changes state.
+ * Carries a detached snapshot of the order so listeners never touch lazy associations.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class OrderChangedEvent {
+    
+    private final Type type;
+    private final Long orderId;
+    private final Long userId;
+    private final LocalDateTime orderDate;
+    private final Order.OrderStatus previousOrderStatus;
+    private final Order.PaymentStatus previousPaymentStatus;
+    private final Order.OrderStatus orderStatus;
+    private final Order.PaymentStatus paymentStatus;
+    private final Order.PaymentMethod paymentMethod;
+    private final String customerName;
+    private final String customerEmail;
+    private final String customerPhone;
+    private final BigDecimal totalAmount;
+    private final List<Line> lines;
+    
+    /**
+     * Build an event from an order and the status it had before the change
+     */
+    public static OrderChangedEvent of(Type type, Order order,
+                                       Order.OrderStatus previousOrderStatus,
+                                       Order.PaymentStatus previousPaymentStatus) {
+        return OrderChangedEvent.builder()
+                .type(type)
+                .orderId(order.getId())
+                .userId(order.getUser() != null ? order.getUser().getId() : null)
+                .orderDate(order.getOrderDate())
+                .previousOrderStatus(previousOrderStatus)
+                .previousPaymentStatus(previousPaymentStatus)
+                .orderStatus(order.getOrderStatus())
+                .paymentStatus(order.getPaymentStatus())
+                .paymentMethod(order.getPaymentMethod())
+                .customerName(order.getCustomerName())
+                .customerEmail(order.getCustomerEmail())
+                .customerPhone(order.getCustomerPhone())
+                .totalAmount(order.getTotalAmount())
+                .lines(order.getOrderItems().stream().map(Line::of).toList())
+                .build();
+    }
+    
+    public boolean isCreated() {
+        return type == Type.CREATED;
+    }
+    
+    public boolean isCompleted() {
+        return isCompleted(orderStatus, paymentStatus);
+    }
+    
+    public boolean wasCompleted() {
+        return previousOrderStatus != null && isCompleted(previousOrderStatus, previousPaymentStatus);
+    }
+    
+    public boolean isCancelled() {
+        return orderStatus == Order.OrderStatus.CANCELLED;
+    }
+    
+    public boolean wasCancelled() {
+        return previousOrderStatus == Order.OrderStatus.CANCELLED;
+    }
+    
+    public String getCustomerKey() {
+        return customerKey(customerName, customerEmail, customerPhone);
+    }
+    
+    /**
+     * Key identifying a customer: normalized email, else phone digits, else lower-cased name
+     */
+    public static String customerKey(String name, String email, String phone) {
+        String emailKey = Order.normalizeEmail(email);
+        if (emailKey != null) {
+            return emailKey;
+        }
+        String phoneKey = Order.normalizePhone(phone);
+        if (phoneKey != null) {
+            return "tel:" + phoneKey;
+        }
+        return name != null && !name.isBlank() ? "name:" + name.trim().toLowerCase(java.util.Locale.ROOT) : null;
+    }
+    
+    public int getTotalQuantity() {
+        return lines.stream().mapToInt(Line::getQuantity).sum();
+    }
+    
+    private static boolean isCompleted(Order.OrderStatus orderStatus, Order.PaymentStatus paymentStatus) {
+        return orderStatus == Order.OrderStatus.DELIVERED && paymentStatus == Order.PaymentStatus.PAID;
+    }
+    
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        CANCELLED
+    }
+    
+    /**
+     * Snapshot of one order line
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Line {
+        private final Long productId;
+        private final Long categoryId;
+        private final int quantity;
+        private final BigDecimal price;
+        
+        static Line of(OrderItem orderItem) {
+            Long categoryId = orderItem.getCategoryId();
+            if (categoryId == null && orderItem.getProduct().getCategory() != null) {
+                // Lines stored before the category was captured fall back to the current category
+                categoryId = orderItem.getProduct().getCategory().getId();
+            }
+            return new Line(
+                    orderItem.getProduct().getId(),
+                    categoryId,
+                    orderItem.getQuantity(),
+                    orderItem.getPrice());
+        }
+        
+        public BigDecimal getAmount() {
+            return price.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ims.inventoryms.exception;
+
+/**
+ * Thrown when a bounded resource such as a worker queue is full and the request
+ * should be retried later
+ */
+public class ServiceBusyException extends RuntimeException {
+    
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
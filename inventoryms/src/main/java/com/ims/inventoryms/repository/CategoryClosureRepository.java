@@ -0,0 +1,75 @@
+package com.ims.inventoryms.repository;
+
+import com.ims.inventoryms.entity.CategoryClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for CategoryClosure entity operations
+ */
+@Repository
+public interface CategoryClosureRepository extends JpaRepository<CategoryClosure, CategoryClosure.Key> {
+    
+    /**
+     * Check whether a category is in the subtree of another (a category is in its own subtree)
+     */
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+    
+    /**
+     * Add the paths of a new leaf category: itself, plus every ancestor of its parent
+     */
+    @Modifying
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT ancestor_id, :categoryId, depth + 1 FROM category_closure WHERE descendant_id = :parentId " +
+                   "UNION ALL SELECT :categoryId, :categoryId, 0",
+           nativeQuery = true)
+    int insertLeaf(@Param("categoryId") Long categoryId, @Param("parentId") Long parentId);
+    
+    /**
+     * Remove the paths linking a subtree to the ancestors of its root
+     */
+    @Modifying
+    @Query(value = "DELETE cc FROM category_closure cc " +
+                   "JOIN category_closure sub ON sub.descendant_id = cc.descendant_id AND sub.ancestor_id = :categoryId " +
+                   "LEFT JOIN category_closure inner_path ON inner_path.ancestor_id = :categoryId " +
+                   "AND inner_path.descendant_id = cc.ancestor_id " +
+                   "WHERE inner_path.ancestor_id IS NULL",
+           nativeQuery = true)
+    int detachSubtree(@Param("categoryId") Long categoryId);
+    
+    /**
+     * Link a detached subtree below a new parent
+     */
+    @Modifying
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT sup.ancestor_id, sub.descendant_id, sup.depth + sub.depth + 1 " +
+                   "FROM category_closure sup JOIN category_closure sub ON sub.ancestor_id = :categoryId " +
+                   "WHERE sup.descendant_id = :parentId",
+           nativeQuery = true)
+    int attachSubtree(@Param("categoryId") Long categoryId, @Param("parentId") Long parentId);
+    
+    /**
+     * Remove every path ending at a category
+     */
+    @Modifying
+    @Query("DELETE FROM CategoryClosure cc WHERE cc.descendantId = :categoryId")
+    int deleteByDescendantId(@Param("categoryId") Long categoryId);
+    
+    /**
+     * Rebuild all paths from the parent links of the categories table
+     */
+    @Modifying
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+                   "WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (" +
+                   "SELECT id, id, 0 FROM categories " +
+                   "UNION ALL " +
+                   "SELECT c.parent_category_id, p.descendant_id, p.depth + 1 " +
+                   "FROM paths p JOIN categories c ON c.id = p.ancestor_id " +
+                   "WHERE c.parent_category_id IS NOT NULL AND p.depth < 100) " +
+                   "SELECT ancestor_id, descendant_id, MIN(depth) FROM paths GROUP BY ancestor_id, descendant_id",
+           nativeQuery = true)
+    int rebuildFromCategories();
+}
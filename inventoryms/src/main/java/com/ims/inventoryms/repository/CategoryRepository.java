@@ -3,7 +3,9 @@ package com.ims.inventoryms.repository;
 import com.ims.inventoryms.entity.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,6 +24,12 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      */
     Optional<Category> findByName(String name);
     
+    /**
+     * Find category by ID together with its parent
+     */
+    @EntityGraph(attributePaths = "parentCategory")
+    Optional<Category> findWithParentById(Long id);
+    
     /**
      * Check if category exists by name
      */
@@ -55,10 +63,65 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     Page<Category> searchCategories(@Param("search") String search, Pageable pageable);
     
     /**
-     * Count products in category
+     * Find the active descendants of a category, shallowest first
+     */
+    @Query("SELECT c FROM Category c JOIN CategoryClosure cc ON cc.descendantId = c.id " +
+           "WHERE cc.ancestorId = :categoryId AND cc.depth > 0 AND c.isActive = true " +
+           "ORDER BY cc.depth, c.name")
+    List<Category> findActiveDescendants(@Param("categoryId") Long categoryId);
+    
+    /**
+     * Current subtree rollups of a category, read from the database rather than the persistence context.
+     * Single row: descendant count, subtree product count.
+     */
+    @Query("SELECT c.descendantCount, c.subtreeProductCount FROM Category c WHERE c.id = :categoryId")
+    List<Object[]> findSubtreeCounts(@Param("categoryId") Long categoryId);
+    
+    /**
+     * Add to the active product counter of a category and the subtree product counters of it and its ancestors
+     */
+    @Modifying
+    @Query(value = "UPDATE categories c JOIN category_closure cc ON cc.ancestor_id = c.id " +
+                   "SET c.subtree_product_count = c.subtree_product_count + :delta, " +
+                   "c.active_product_count = c.active_product_count + CASE WHEN cc.depth = 0 THEN :delta ELSE 0 END " +
+                   "WHERE cc.descendant_id = :categoryId",
+           nativeQuery = true)
+    int adjustProductCounts(@Param("categoryId") Long categoryId, @Param("delta") long delta);
+    
+    /**
+     * Account for a subtree attached below (positive deltas) or detached from (negative deltas) a parent:
+     * the parent's subcategory counter and the rollups of the parent and its ancestors
+     */
+    @Modifying
+    @Query(value = "UPDATE categories c JOIN category_closure cc ON cc.ancestor_id = c.id " +
+                   "SET c.descendant_count = c.descendant_count + :categories, " +
+                   "c.subtree_product_count = c.subtree_product_count + :products, " +
+                   "c.sub_category_count = c.sub_category_count + CASE WHEN cc.depth = 0 THEN :children ELSE 0 END " +
+                   "WHERE cc.descendant_id = :parentId",
+           nativeQuery = true)
+    int adjustSubtreeCounts(@Param("parentId") Long parentId,
+                            @Param("children") int children,
+                            @Param("categories") long categories,
+                            @Param("products") long products);
+    
+    /**
+     * Recompute every counter from the products, categories and closure tables
      */
-    @Query("SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId AND p.isActive = true")
-    long countProductsByCategoryId(@Param("categoryId") Long categoryId);
+    @Modifying
+    @Query(value = "UPDATE categories c " +
+                   "LEFT JOIN (SELECT category_id, COUNT(*) AS n FROM products WHERE is_active = true " +
+                   "GROUP BY category_id) direct ON direct.category_id = c.id " +
+                   "LEFT JOIN (SELECT parent_category_id, COUNT(*) AS n FROM categories WHERE parent_category_id IS NOT NULL " +
+                   "GROUP BY parent_category_id) children ON children.parent_category_id = c.id " +
+                   "LEFT JOIN (SELECT cc.ancestor_id, COUNT(DISTINCT cc.descendant_id) - 1 AS descendants, COUNT(p.id) AS products " +
+                   "FROM category_closure cc LEFT JOIN products p ON p.category_id = cc.descendant_id AND p.is_active = true " +
+                   "GROUP BY cc.ancestor_id) subtree ON subtree.ancestor_id = c.id " +
+                   "SET c.active_product_count = COALESCE(direct.n, 0), " +
+                   "c.sub_category_count = COALESCE(children.n, 0), " +
+                   "c.descendant_count = COALESCE(subtree.descendants, 0), " +
+                   "c.subtree_product_count = COALESCE(subtree.products, 0)",
+           nativeQuery = true)
+    int repairCounters();
     
     /**
      * Find categories with product count
@@ -0,0 +1,56 @@
+package com.ims.inventoryms.repository;
+
+import com.ims.inventoryms.entity.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for DailySalesRollup entity operations
+ */
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, LocalDate> {
+    
+    /**
+     * Find rollup rows for a date range, oldest first
+     */
+    @Query("SELECT r FROM DailySalesRollup r WHERE r.salesDate BETWEEN :startDate AND :endDate ORDER BY r.salesDate")
+    List<DailySalesRollup> findBySalesDateBetween(@Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Atomically add a delta to a day's totals, creating the row if needed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales_rollup (sales_date, completed_revenue, order_count, items_sold) " +
+                   "VALUES (:salesDate, :revenue, :orders, :items) " +
+                   "ON DUPLICATE KEY UPDATE completed_revenue = completed_revenue + VALUES(completed_revenue), " +
+                   "order_count = order_count + VALUES(order_count), items_sold = items_sold + VALUES(items_sold)",
+           nativeQuery = true)
+    int applyDelta(@Param("salesDate") LocalDate salesDate,
+                   @Param("revenue") BigDecimal revenue,
+                   @Param("orders") long orders,
+                   @Param("items") long items);
+    
+    /**
+     * Rebuild all rollup rows from the orders table. Existing rows are overwritten with the totals
+     * recomputed from orders, so running it concurrently with deltas or on two nodes at once
+     * neither fails on duplicate keys nor counts an order twice.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales_rollup (sales_date, completed_revenue, order_count, items_sold) " +
+                   "SELECT DATE(o.order_date), SUM(o.total_amount), COUNT(*), " +
+                   "COALESCE(SUM((SELECT SUM(oi.quantity) FROM order_items oi WHERE oi.order_id = o.id)), 0) " +
+                   "FROM orders o WHERE o.order_status = 'DELIVERED' AND o.payment_status = 'PAID' " +
+                   "GROUP BY DATE(o.order_date) " +
+                   "ON DUPLICATE KEY UPDATE completed_revenue = VALUES(completed_revenue), " +
+                   "order_count = VALUES(order_count), items_sold = VALUES(items_sold)",
+           nativeQuery = true)
+    int rebuildFromOrders();
+}
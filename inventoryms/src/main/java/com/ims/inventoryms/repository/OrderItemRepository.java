@@ -1,12 +1,18 @@
 package com.ims.inventoryms.repository;
 
 import com.ims.inventoryms.entity.OrderItem;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for OrderItem entity operations
@@ -29,6 +35,37 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      */
     List<OrderItem> findByOrderIdAndProductId(Long orderId, Long productId);
     
+    /**
+     * Delete order items belonging to the given orders
+     */
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+    
+    /**
+     * Stream order lines with their order's dimensions for orders placed since the given time.
+     * Rows: order id, order date, order status, payment status, payment method, order total,
+     * category id at placement, quantity, price; ordered by order id.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE))
+    @Query("SELECT o.id, o.orderDate, o.orderStatus, o.paymentStatus, o.paymentMethod, o.totalAmount, " +
+           "COALESCE(oi.categoryId, p.category.id), oi.quantity, oi.price " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.product p " +
+           "WHERE o.orderDate >= :since ORDER BY o.id")
+    Stream<Object[]> streamOrderLinesSince(@Param("since") LocalDateTime since);
+    
+    /**
+     * Stream daily units ordered per product since the given time, excluding cancelled orders.
+     * Rows: product id, order day, units; ordered by product and day.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE))
+    @Query(value = "SELECT oi.product_id, DATE(oi.order_date), SUM(oi.quantity) " +
+                   "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                   "WHERE oi.order_date >= :since AND o.order_status <> 'CANCELLED' " +
+                   "GROUP BY oi.product_id, DATE(oi.order_date) ORDER BY oi.product_id, DATE(oi.order_date)",
+           nativeQuery = true)
+    Stream<Object[]> streamDailyProductUnitsSince(@Param("since") LocalDateTime since);
+    
     /**
      * Calculate total quantity sold for a product
      */
@@ -0,0 +1,112 @@
+package com.ims.inventoryms.repository;
+
+import com.ims.inventoryms.entity.Order;
+import com.ims.inventoryms.entity.OrderReadModel;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for the denormalized order read model
+ */
+@Repository
+public interface OrderReadModelRepository extends JpaRepository<OrderReadModel, Long> {
+
+    /**
+     * Find order views by status
+     */
+    @Query("SELECT o FROM OrderReadModel o WHERE o.orderStatus = :status")
+    Page<OrderReadModel> findByOrderStatus(@Param("status") Order.OrderStatus status, Pageable pageable);
+
+    /**
+     * Find order views by date range
+     */
+    @Query("SELECT o FROM OrderReadModel o WHERE o.orderDate BETWEEN :startDate AND :endDate")
+    Page<OrderReadModel> findByOrderDateBetween(@Param("startDate") LocalDateTime startDate,
+                                                @Param("endDate") LocalDateTime endDate,
+                                                Pageable pageable);
+
+    /**
+     * Find order views placed since a date with IDs after the given one, in ID order, for keyset paging
+     */
+    @Query("SELECT o FROM OrderReadModel o WHERE o.id > :afterId AND o.orderDate >= :since ORDER BY o.id")
+    List<OrderReadModel> findPlacedSinceAfter(@Param("since") LocalDateTime since,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    /**
+     * Find order views by case-folded customer email
+     */
+    @Query("SELECT o FROM OrderReadModel o WHERE o.customerEmailKey = :emailKey")
+    Page<OrderReadModel> findByCustomerEmailKey(@Param("emailKey") String emailKey, Pageable pageable);
+
+    /**
+     * Find order views by digits-only customer phone
+     */
+    @Query("SELECT o FROM OrderReadModel o WHERE o.customerPhoneKey = :phoneKey")
+    Page<OrderReadModel> findByCustomerPhoneKey(@Param("phoneKey") String phoneKey, Pageable pageable);
+
+    /**
+     * Find order views whose order number starts with the given prefix
+     */
+    @Query("SELECT o FROM OrderReadModel o WHERE o.orderNumber LIKE CONCAT(:prefix, '%')")
+    Page<OrderReadModel> findByOrderNumberPrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    /**
+     * Find order views whose customer name contains the term, newest first, by scanning
+     */
+    @Query("SELECT o FROM OrderReadModel o WHERE LOWER(o.customerName) LIKE LOWER(CONCAT('%', :term, '%')) " +
+           "ORDER BY o.id DESC")
+    Page<OrderReadModel> searchByCustomerName(@Param("term") String term, Pageable pageable);
+
+    /**
+     * Find order views whose customer name contains the term, newest first.
+     * The boolean-mode FULLTEXT match narrows the rows; the LIKE keeps plain substring semantics.
+     */
+    @Query(value = "SELECT * FROM order_read_model " +
+                   "WHERE MATCH(customer_name) AGAINST (:words IN BOOLEAN MODE) " +
+                   "AND LOWER(customer_name) LIKE LOWER(CONCAT('%', :term, '%')) ORDER BY order_id DESC",
+           countQuery = "SELECT COUNT(*) FROM order_read_model " +
+                        "WHERE MATCH(customer_name) AGAINST (:words IN BOOLEAN MODE) " +
+                        "AND LOWER(customer_name) LIKE LOWER(CONCAT('%', :term, '%'))",
+           nativeQuery = true)
+    Page<OrderReadModel> searchByCustomerNameFullText(@Param("words") String words,
+                                                      @Param("term") String term,
+                                                      Pageable pageable);
+
+    /**
+     * Find recent order views
+     */
+    @Query("SELECT o FROM OrderReadModel o ORDER BY o.orderDate DESC")
+    List<OrderReadModel> findRecentOrders(Pageable pageable);
+
+    /**
+     * Find order views in the given statuses placed before the cutoff, oldest IDs first
+     */
+    @Query("SELECT o FROM OrderReadModel o WHERE o.orderStatus IN :statuses AND o.orderDate < :cutoff ORDER BY o.id")
+    List<OrderReadModel> findArchivable(@Param("statuses") Collection<Order.OrderStatus> statuses,
+                                        @Param("cutoff") LocalDateTime cutoff,
+                                        Pageable pageable);
+
+    /**
+     * Delete order views by IDs
+     */
+    @Modifying
+    @Query("DELETE FROM OrderReadModel o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find ids of orders after the given ID that have no read model row yet
+     */
+    @Query("SELECT o.id FROM Order o LEFT JOIN OrderReadModel r ON r.id = o.id " +
+           "WHERE r.id IS NULL AND o.id > :afterId ORDER BY o.id")
+    List<Long> findOrderIdsMissingReadModel(@Param("afterId") Long afterId, Pageable pageable);
+}
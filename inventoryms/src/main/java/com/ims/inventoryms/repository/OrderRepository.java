@@ -3,13 +3,16 @@ package com.ims.inventoryms.repository;
 import com.ims.inventoryms.entity.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +22,13 @@ import java.util.Optional;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
+    /**
+     * Find order by ID with its items and their products in a single query
+     */
+    @EntityGraph(Order.WITH_ITEMS_AND_PRODUCTS)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
+    
     /**
      * Find order by order number
      */
@@ -56,23 +66,23 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
                                        Pageable pageable);
     
     /**
-     * Find orders by customer email
+     * Find orders by customer email (key from Order.normalizeEmail)
      */
-    @Query("SELECT o FROM Order o WHERE LOWER(o.customerEmail) = LOWER(:email)")
-    Page<Order> findByCustomerEmail(@Param("email") String email, Pageable pageable);
+    @Query("SELECT o FROM Order o WHERE o.customerEmailKey = :emailKey")
+    Page<Order> findByCustomerEmail(@Param("emailKey") String emailKey, Pageable pageable);
     
     /**
-     * Find orders by customer phone
+     * Find orders by customer phone (key from Order.normalizePhone)
      */
-    @Query("SELECT o FROM Order o WHERE o.customerPhone = :phone")
-    Page<Order> findByCustomerPhone(@Param("phone") String phone, Pageable pageable);
+    @Query("SELECT o FROM Order o WHERE o.customerPhoneKey = :phoneKey")
+    Page<Order> findByCustomerPhone(@Param("phoneKey") String phoneKey, Pageable pageable);
     
     /**
-     * Search orders by customer name or order number
+     * Search orders by customer name or order number prefix
      */
     @Query("SELECT o FROM Order o WHERE " +
-           "(LOWER(o.customerName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(o.orderNumber) LIKE LOWER(CONCAT('%', :search, '%')))")
+           "(o.customerName LIKE CONCAT(:search, '%') OR " +
+           "o.orderNumber LIKE CONCAT(:search, '%'))")
     Page<Order> searchOrders(@Param("search") String search, Pageable pageable);
     
     /**
@@ -110,6 +120,35 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     BigDecimal calculateTotalSales(@Param("startDate") LocalDateTime startDate, 
                                    @Param("endDate") LocalDateTime endDate);
     
+    /**
+     * Count orders and sum their totals per order and payment status within a date range
+     */
+    @Query("SELECT o.orderStatus, o.paymentStatus, COUNT(o), COALESCE(SUM(o.totalAmount), 0) FROM Order o " +
+           "WHERE o.orderDate BETWEEN :startDate AND :endDate GROUP BY o.orderStatus, o.paymentStatus")
+    List<Object[]> summarizeByStatusBetween(@Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Count orders per payment method within a date range
+     */
+    @Query("SELECT o.paymentMethod, COUNT(o) FROM Order o WHERE o.paymentMethod IS NOT NULL AND " +
+           "o.orderDate BETWEEN :startDate AND :endDate GROUP BY o.paymentMethod")
+    List<Object[]> countByPaymentMethodBetween(@Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Order date, total and units of orders placed since a point in time that are not cancelled
+     */
+    @Query("SELECT o.orderDate, o.totalAmount, COALESCE(SUM(i.quantity), 0) FROM Order o LEFT JOIN o.orderItems i " +
+           "WHERE o.orderDate >= :since AND o.orderStatus <> 'CANCELLED' GROUP BY o.id, o.orderDate, o.totalAmount")
+    List<Object[]> summarizeLiveOrdersSince(@Param("since") LocalDateTime since);
+    
+    /**
+     * Count completed orders
+     */
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.orderStatus = 'DELIVERED' AND o.paymentStatus = 'PAID'")
+    long countCompletedOrders();
+    
     /**
      * Count orders by status
      */
@@ -122,6 +161,29 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o ORDER BY o.orderDate DESC")
     List<Order> findRecentOrders(Pageable pageable);
     
+    /**
+     * Find order and payment status by order IDs. Rows: order id, order status, payment status.
+     */
+    @Query("SELECT o.id, o.orderStatus, o.paymentStatus FROM Order o WHERE o.id IN :ids")
+    List<Object[]> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Fill lookup keys for orders created before the key columns existed
+     */
+    @Modifying
+    @Query(value = "UPDATE orders SET customer_email_key = LOWER(TRIM(customer_email)), " +
+                   "customer_phone_key = NULLIF(REGEXP_REPLACE(customer_phone, '[^0-9]', ''), '') " +
+                   "WHERE customer_email_key IS NULL AND customer_phone_key IS NULL AND " +
+                   "(customer_email IS NOT NULL OR customer_phone IS NOT NULL)", nativeQuery = true)
+    int backfillLookupKeys();
+    
+    /**
+     * Delete orders by IDs (order items must be deleted first)
+     */
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
     /**
      * Find orders by user and date range
      */
@@ -0,0 +1,70 @@
+package com.ims.inventoryms.repository;
+
+import com.ims.inventoryms.entity.ProductDemandForecast;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for ProductDemandForecast entity operations
+ */
+@Repository
+public interface ProductDemandForecastRepository extends JpaRepository<ProductDemandForecast, Long> {
+    
+    /**
+     * Find a product's forecast, locking it for update
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM ProductDemandForecast f WHERE f.productId = :productId")
+    Optional<ProductDemandForecast> findForUpdate(@Param("productId") Long productId);
+    
+    /**
+     * Create an empty forecast for a product unless one exists. Either way the row ends up
+     * exclusively locked, so a following findForUpdate never has to upgrade a shared lock.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO product_demand_forecasts (product_id, daily_demand, demand_variance, current_day, " +
+                   "current_day_units, reorder_point, order_up_to_level, updated_at) " +
+                   "VALUES (:productId, 0, 0, :day, 0, 0, 0, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE product_id = product_id",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("productId") Long productId, @Param("day") LocalDate day);
+    
+    /**
+     * Find forecasts after an ID, in ID order, locking them for update, for batch processing
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM ProductDemandForecast f WHERE f.productId > :afterId ORDER BY f.productId")
+    List<ProductDemandForecast> findAfterForUpdate(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Find active products at or below their forecast reorder point, with their forecast
+     */
+    @Query(value = "SELECT p, f FROM ProductDemandForecast f JOIN Product p ON p.id = f.productId " +
+                   "WHERE p.isActive = true AND p.stockQuantity <= f.reorderPoint AND f.reorderPoint > 0 " +
+                   "ORDER BY (f.orderUpToLevel - p.stockQuantity) DESC",
+           countQuery = "SELECT COUNT(f) FROM ProductDemandForecast f JOIN Product p ON p.id = f.productId " +
+                        "WHERE p.isActive = true AND p.stockQuantity <= f.reorderPoint AND f.reorderPoint > 0")
+    Page<Object[]> findReorderSuggestions(Pageable pageable);
+    
+    /**
+     * Copy forecast reorder points and order-up-to levels into the products' stock levels
+     */
+    @Modifying
+    @Query(value = "UPDATE products p JOIN product_demand_forecasts f ON f.product_id = p.id " +
+                   "SET p.min_stock_level = f.reorder_point, " +
+                   "p.max_stock_level = GREATEST(f.order_up_to_level, f.reorder_point + 1, 1) " +
+                   "WHERE f.reorder_point > 0",
+           nativeQuery = true)
+    int writeBackStockLevels();
+}
@@ -44,12 +44,69 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.isActive = true")
     Page<Product> findActiveProducts(Pageable pageable);
     
+    /**
+     * Find active products, optionally filtered by classification
+     */
+    @Query("SELECT p FROM Product p WHERE p.isActive = true AND " +
+           "(:abcClass IS NULL OR p.abcClass = :abcClass) AND " +
+           "(:velocityClass IS NULL OR p.velocityClass = :velocityClass)")
+    Page<Product> findActiveProductsByClass(@Param("abcClass") Product.AbcClass abcClass,
+                                            @Param("velocityClass") Product.VelocityClass velocityClass,
+                                            Pageable pageable);
+    
+    /**
+     * Search active products by classification combined with any of the other search filters
+     */
+    @Query("SELECT p FROM Product p WHERE p.isActive = true AND " +
+           "(:abcClass IS NULL OR p.abcClass = :abcClass) AND " +
+           "(:velocityClass IS NULL OR p.velocityClass = :velocityClass) AND " +
+           "(:search IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(p.brand) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(p.sku) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+           "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
+           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+           "(:brand IS NULL OR LOWER(p.brand) = LOWER(:brand)) AND " +
+           "(:supplier IS NULL OR LOWER(p.supplier) = LOWER(:supplier))")
+    Page<Product> searchProductsByClass(@Param("abcClass") Product.AbcClass abcClass,
+                                        @Param("velocityClass") Product.VelocityClass velocityClass,
+                                        @Param("search") String search,
+                                        @Param("categoryId") Long categoryId,
+                                        @Param("minPrice") BigDecimal minPrice,
+                                        @Param("maxPrice") BigDecimal maxPrice,
+                                        @Param("brand") String brand,
+                                        @Param("supplier") String supplier,
+                                        Pageable pageable);
+    
+    /**
+     * Count active products
+     */
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.isActive = true")
+    long countActiveProducts();
+    
+    /**
+     * Sum inventory value (cost price x stock) of active products per category and supplier
+     */
+    @Query("SELECT p.category.id, p.supplier, SUM(p.costPrice * p.stockQuantity) FROM Product p " +
+           "WHERE p.isActive = true GROUP BY p.category.id, p.supplier")
+    List<Object[]> sumInventoryValueByCategoryAndSupplier();
+    
     /**
      * Find products by category
      */
     @Query("SELECT p FROM Product p WHERE p.category.id = :categoryId AND p.isActive = true")
     Page<Product> findByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
     
+    /**
+     * Find products in a category or any of its descendants
+     */
+    @Query(value = "SELECT p FROM Product p JOIN CategoryClosure cc ON cc.descendantId = p.category.id " +
+                   "WHERE cc.ancestorId = :categoryId AND p.isActive = true",
+           countQuery = "SELECT COUNT(p) FROM Product p JOIN CategoryClosure cc ON cc.descendantId = p.category.id " +
+                        "WHERE cc.ancestorId = :categoryId AND p.isActive = true")
+    Page<Product> findByCategorySubtree(@Param("categoryId") Long categoryId, Pageable pageable);
+    
     /**
      * Search products by name, description, or brand
      */
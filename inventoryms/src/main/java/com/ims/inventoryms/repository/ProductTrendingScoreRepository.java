@@ -0,0 +1,36 @@
+package com.ims.inventoryms.repository;
+
+import com.ims.inventoryms.entity.ProductTrendingScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for ProductTrendingScore entity operations
+ */
+@Repository
+public interface ProductTrendingScoreRepository extends JpaRepository<ProductTrendingScore, Long> {
+    
+    /**
+     * Check whether any product has a stored score, ignoring the seed marker
+     */
+    boolean existsByProductIdNot(Long markerProductId);
+    
+    /**
+     * Find the stored scores of all products, without the seed marker
+     */
+    List<ProductTrendingScore> findByProductIdNot(Long markerProductId);
+    
+    /**
+     * Claim the one-time seeding of the scores by inserting the marker row.
+     * Returns 1 for the node that claimed it and 0 if another node already has.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO product_trending_scores (product_id, score, scored_at) " +
+                   "VALUES (:markerProductId, 0, NOW())", nativeQuery = true)
+    int claimSeed(@Param("markerProductId") Long markerProductId);
+}
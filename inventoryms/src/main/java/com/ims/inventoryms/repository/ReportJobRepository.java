@@ -0,0 +1,35 @@
+package com.ims.inventoryms.repository;
+
+import com.ims.inventoryms.entity.ReportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for ReportJob entity operations
+ */
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+    
+    /**
+     * Find a queued or running job for the same spec
+     */
+    Optional<ReportJob> findFirstBySpecHashAndStatusInOrderByCreatedAtDesc(String specHash,
+                                                                          Collection<ReportJob.Status> statuses);
+    
+    /**
+     * Find the latest completed job of a node for the same spec whose result has not expired
+     */
+    Optional<ReportJob> findFirstBySpecHashAndNodeIdAndStatusAndExpiresAtAfterOrderByCompletedAtDesc(String specHash,
+                                                                                                    String nodeId,
+                                                                                                    ReportJob.Status status,
+                                                                                                    LocalDateTime now);
+    
+    List<ReportJob> findByNodeIdAndStatusIn(String nodeId, Collection<ReportJob.Status> statuses);
+    
+    List<ReportJob> findByNodeIdAndStatusAndExpiresAtBefore(String nodeId, ReportJob.Status status, LocalDateTime now);
+}
@@ -0,0 +1,64 @@
+package com.ims.inventoryms.repository;
+
+import com.ims.inventoryms.entity.SalesSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for SalesSketch entity operations
+ */
+@Repository
+public interface SalesSketchRepository extends JpaRepository<SalesSketch, Long> {
+    
+    /**
+     * Find the sketch a node wrote for a day
+     */
+    Optional<SalesSketch> findBySalesDateAndNodeIdAndSketchType(LocalDate salesDate, String nodeId,
+                                                                SalesSketch.SketchType sketchType);
+    
+    /**
+     * Check whether any node has written sketches of a type
+     */
+    boolean existsBySketchType(SalesSketch.SketchType sketchType);
+    
+    /**
+     * Claim the one-time seeding of a sketch type by inserting its marker row.
+     * Returns 1 for the node that claimed it and 0 if another node already has.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO sales_sketches (sales_date, node_id, sketch_type, payload, updated_at) " +
+                   "VALUES (:markerDate, :markerNodeId, :type, '', NOW())", nativeQuery = true)
+    int claimSeed(@Param("markerDate") LocalDate markerDate,
+                  @Param("markerNodeId") String markerNodeId,
+                  @Param("type") String type);
+    
+    /**
+     * Delete sketches of every node for days before a date, keeping the seed markers
+     */
+    @Modifying
+    @Query("DELETE FROM SalesSketch s WHERE s.salesDate < :before AND s.nodeId <> :markerNodeId")
+    int deleteOlderThan(@Param("before") LocalDate before, @Param("markerNodeId") String markerNodeId);
+    
+    /**
+     * Find all sketches a node wrote since a date
+     */
+    @Query("SELECT s FROM SalesSketch s WHERE s.nodeId = :nodeId AND s.salesDate >= :since")
+    List<SalesSketch> findByNodeIdSince(@Param("nodeId") String nodeId, @Param("since") LocalDate since);
+    
+    /**
+     * Find sketches of one type written by other nodes within a date range
+     */
+    @Query("SELECT s FROM SalesSketch s WHERE s.sketchType = :type AND s.nodeId <> :nodeId AND " +
+           "s.salesDate BETWEEN :startDate AND :endDate")
+    List<SalesSketch> findFromOtherNodes(@Param("type") SalesSketch.SketchType type,
+                                         @Param("nodeId") String nodeId,
+                                         @Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,67 @@
+package com.ims.inventoryms.repository;
+
+import com.ims.inventoryms.entity.UserDailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for UserDailySales entity operations
+ */
+@Repository
+public interface UserDailySalesRepository extends JpaRepository<UserDailySales, UserDailySales.Key> {
+    
+    /**
+     * Sum each rep's daily totals over a date range.
+     * Rows: user id, username, first name, last name, orders, revenue, units, cancellations.
+     */
+    @Query("SELECT u.id, u.username, u.firstName, u.lastName, SUM(s.orderCount), SUM(s.revenue), " +
+           "SUM(s.units), SUM(s.cancellations) " +
+           "FROM UserDailySales s JOIN User u ON u.id = s.userId " +
+           "WHERE s.salesDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY u.id, u.username, u.firstName, u.lastName")
+    List<Object[]> sumByUserBetween(@Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Atomically add a delta to a rep's daily totals, creating the row if needed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_sales (user_id, sales_date, order_count, revenue, units, cancellations) " +
+                   "VALUES (:userId, :salesDate, :orders, :revenue, :units, :cancellations) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+                   "revenue = revenue + VALUES(revenue), units = units + VALUES(units), " +
+                   "cancellations = cancellations + VALUES(cancellations)",
+           nativeQuery = true)
+    int applyDelta(@Param("userId") Long userId,
+                   @Param("salesDate") LocalDate salesDate,
+                   @Param("orders") long orders,
+                   @Param("revenue") BigDecimal revenue,
+                   @Param("units") long units,
+                   @Param("cancellations") long cancellations);
+    
+    /**
+     * Rebuild all rows from the orders table. Existing rows are overwritten with the totals
+     * recomputed from orders, so running it concurrently with deltas or on two nodes at once
+     * neither fails on duplicate keys nor counts an order twice.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_sales (user_id, sales_date, order_count, revenue, units, cancellations) " +
+                   "SELECT o.user_id, DATE(o.order_date), COUNT(*), " +
+                   "COALESCE(SUM(CASE WHEN o.order_status <> 'CANCELLED' THEN o.total_amount END), 0), " +
+                   "COALESCE(SUM(CASE WHEN o.order_status <> 'CANCELLED' THEN " +
+                   "(SELECT SUM(oi.quantity) FROM order_items oi WHERE oi.order_id = o.id) END), 0), " +
+                   "SUM(CASE WHEN o.order_status = 'CANCELLED' THEN 1 ELSE 0 END) " +
+                   "FROM orders o WHERE o.user_id IS NOT NULL " +
+                   "GROUP BY o.user_id, DATE(o.order_date) " +
+                   "ON DUPLICATE KEY UPDATE order_count = VALUES(order_count), revenue = VALUES(revenue), " +
+                   "units = VALUES(units), cancellations = VALUES(cancellations)",
+           nativeQuery = true)
+    int rebuildFromOrders();
+}
@@ -22,6 +22,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsername(String username);
     
+    /**
+     * Find the account-status version and active flag of a user, without loading the role.
+     * Single row: status version, is active.
+     */
+    @Query("SELECT u.statusVersion, u.isActive FROM User u WHERE u.id = :id")
+    List<Object[]> findStatusById(@Param("id") Long id);
+    
     /**
      * Find user by email
      */
@@ -1,13 +1,17 @@
 package com.ims.inventoryms.service;
 
+import com.ims.inventoryms.config.JwtUtils;
 import com.ims.inventoryms.dto.LoginRequest;
 import com.ims.inventoryms.dto.LoginResponse;
 import com.ims.inventoryms.dto.UserRequest;
 import com.ims.inventoryms.dto.UserResponse;
 import com.ims.inventoryms.entity.Role;
 import com.ims.inventoryms.entity.User;
+import com.ims.inventoryms.exception.ServiceBusyException;
 import com.ims.inventoryms.repository.RoleRepository;
 import com.ims.inventoryms.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -37,7 +41,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-    private final CustomUserDetailsService userDetailsService;
+    private final UserStatusService userStatusService;
     
     
     /**
@@ -74,6 +78,8 @@ public class AuthService {
                     .user(mapToUserInfo(user))
                     .build();
                     
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Login failed for user: {}", loginRequest.getUsername(), e);
             throw new BadCredentialsException("Invalid username or password");
@@ -117,28 +123,39 @@ public class AuthService {
     }
     
     /**
-     * Refresh access token
+     * Refresh access token. The refresh token must carry the user's current status version,
+     * so tokens issued before a password change or deactivation are refused.
      */
     public LoginResponse refreshToken(String refreshToken) {
-        if (!jwtService.isRefreshToken(refreshToken)) {
-            throw new IllegalArgumentException("Invalid refresh token");
+        Claims claims;
+        try {
+            claims = jwtService.parseClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid or expired refresh token");
         }
         
-        String username = jwtService.extractUsername(refreshToken);
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (!jwtService.isRefreshToken(claims)) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
         
-        if (!jwtService.validateToken(refreshToken, userDetails)) {
-            throw new IllegalArgumentException("Invalid or expired refresh token");
+        // Refresh tokens without a status version cannot be revoked, so they are not accepted
+        Number userId = claims.get(JwtUtils.CLAIM_USER_ID, Number.class);
+        Number statusVersion = claims.get(JwtUtils.CLAIM_STATUS_VERSION, Number.class);
+        if (userId == null || statusVersion == null
+                || !userStatusService.isCurrent(userId.longValue(), statusVersion.longValue())) {
+            throw new IllegalArgumentException("Refresh token has been revoked, please log in again");
         }
         
-        String newAccessToken = jwtService.generateAccessToken(userDetails);
+        User user = userRepository.findById(userId.longValue())
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+        String newAccessToken = jwtService.generateAccessToken(user);
         
         return LoginResponse.builder()
                 .accessToken(newAccessToken)
                 .refreshToken(refreshToken) // Keep the same refresh token
                 .tokenType("Bearer")
                 .expiresIn(jwtService.getExpirationTime())
-                .user(mapToUserInfo((User) userDetails))
+                .user(mapToUserInfo(user))
                 .build();
     }
     
@@ -3,15 +3,27 @@ package com.ims.inventoryms.service;
 import com.ims.inventoryms.dto.CategoryRequest;
 import com.ims.inventoryms.dto.CategoryResponse;
 import com.ims.inventoryms.entity.Category;
+import com.ims.inventoryms.repository.CategoryClosureRepository;
 import com.ims.inventoryms.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Service class for category management operations
@@ -23,14 +35,38 @@ import java.util.List;
 public class CategoryService {
     
     private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository categoryClosureRepository;
+    private final CategoryTreeService categoryTreeService;
+    
+    /**
+     * Build the category closure table from the parent links the first time it is deployed,
+     * then bring the category counters in line
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeHierarchy() {
+        if (categoryClosureRepository.count() == 0 && categoryRepository.count() > 0) {
+            int rows = categoryClosureRepository.rebuildFromCategories();
+            log.info("Category closure table built with {} paths", rows);
+        }
+        repairCounters();
+    }
+    
+    /**
+     * Recompute the maintained product and subcategory counters of every category
+     */
+    @Scheduled(cron = "${categories.counters.repair-cron}")
+    public void repairCounters() {
+        int rows = categoryRepository.repairCounters();
+        categoryTreeService.refreshAfterCommit();
+        log.info("Category counters recomputed for {} categories", rows);
+    }
     
     /**
      * Get all categories (DTO-based)
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<CategoryResponse> getAllCategories() {
-        List<Category> categories = categoryRepository.findActiveCategories();
-        return categories.stream().map(this::mapToCategoryResponse).toList();
+        return categoryTreeService.getTree().getActiveCategories().stream().map(this::mapToCategoryResponse).toList();
     }
     
     /**
@@ -50,13 +86,18 @@ public class CategoryService {
     }
     
     /**
-     * Get category by ID (DTO-based)
+     * Get category by ID (DTO-based).
+     * Falls back to the database for categories created since the tree was last rebuilt.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CategoryResponse getCategoryById(Long id) {
-        Category category = categoryRepository.findById(id)
+        CategoryTreeService.CategoryNode category = categoryTreeService.getTree().find(id);
+        if (category != null) {
+            return mapToCategoryResponse(category);
+        }
+        return categoryRepository.findWithParentById(id)
+                .map(this::mapToCategoryResponse)
                 .orElseThrow(() -> new IllegalArgumentException("Category not found with id: " + id));
-        return mapToCategoryResponse(category);
     }
     
     /**
@@ -91,6 +132,11 @@ public class CategoryService {
         }
         
         Category savedCategory = categoryRepository.save(category);
+        categoryClosureRepository.insertLeaf(savedCategory.getId(), categoryRequest.getParentCategoryId());
+        if (categoryRequest.getParentCategoryId() != null) {
+            categoryRepository.adjustSubtreeCounts(categoryRequest.getParentCategoryId(), 1, 1, 0);
+        }
+        categoryTreeService.refreshAfterCommit();
         
         log.info("Category created successfully: {}", savedCategory.getName());
         
@@ -114,6 +160,12 @@ public class CategoryService {
         }
         
         Category savedCategory = categoryRepository.save(category);
+        categoryClosureRepository.insertLeaf(savedCategory.getId(),
+                savedCategory.getParentCategory() != null ? savedCategory.getParentCategory().getId() : null);
+        if (savedCategory.getParentCategory() != null) {
+            categoryRepository.adjustSubtreeCounts(savedCategory.getParentCategory().getId(), 1, 1, 0);
+        }
+        categoryTreeService.refreshAfterCommit();
         
         log.info("Category created successfully: {}", savedCategory.getName());
         
@@ -146,12 +198,13 @@ public class CategoryService {
             
             Category parentCategory = categoryRepository.findById(categoryRequest.getParentCategoryId())
                     .orElseThrow(() -> new IllegalArgumentException("Parent category not found with id: " + categoryRequest.getParentCategoryId()));
-            existingCategory.setParentCategory(parentCategory);
+            changeParent(existingCategory, parentCategory);
         } else {
-            existingCategory.setParentCategory(null);
+            changeParent(existingCategory, null);
         }
         
         Category savedCategory = categoryRepository.save(existingCategory);
+        categoryTreeService.refreshAfterCommit();
         
         log.info("Category updated successfully: {}", savedCategory.getName());
         
@@ -185,10 +238,11 @@ public class CategoryService {
         // Update category fields
         existingCategory.setName(category.getName());
         existingCategory.setDescription(category.getDescription());
-        existingCategory.setParentCategory(category.getParentCategory());
+        changeParent(existingCategory, category.getParentCategory());
         existingCategory.setIsActive(category.getIsActive());
         
         Category savedCategory = categoryRepository.save(existingCategory);
+        categoryTreeService.refreshAfterCommit();
         
         log.info("Category updated successfully: {}", savedCategory.getName());
         
@@ -203,18 +257,21 @@ public class CategoryService {
                 .orElseThrow(() -> new IllegalArgumentException("Category not found with id: " + id));
         
         // Check if category has subcategories
-        List<Category> subCategories = categoryRepository.findByParentCategoryId(id);
-        if (!subCategories.isEmpty()) {
+        if (category.getSubCategoryCount() > 0) {
             throw new IllegalArgumentException("Cannot delete category with subcategories. Please delete or move subcategories first.");
         }
         
         // Check if category has products
-        long productCount = categoryRepository.countProductsByCategoryId(id);
-        if (productCount > 0) {
+        if (category.getActiveProductCount() > 0) {
             throw new IllegalArgumentException("Cannot delete category with products. Please move or delete products first.");
         }
         
+        if (category.getParentCategory() != null) {
+            categoryRepository.adjustSubtreeCounts(category.getParentCategory().getId(), -1, -1, 0);
+        }
         categoryRepository.delete(category);
+        categoryClosureRepository.deleteByDescendantId(id);
+        categoryTreeService.refreshAfterCommit();
         
         log.info("Category deleted successfully: {}", category.getName());
     }
@@ -229,6 +286,7 @@ public class CategoryService {
         
         category.setIsActive(!category.getIsActive());
         Category savedCategory = categoryRepository.save(category);
+        categoryTreeService.refreshAfterCommit();
         
         log.info("Category status toggled to {} for category: {}", savedCategory.getIsActive(), savedCategory.getName());
         
@@ -243,9 +301,19 @@ public class CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Category not found with id: " + id));
         
-        // Load subcategories
-        List<Category> subCategories = categoryRepository.findByParentCategoryId(id);
-        category.setSubCategories(subCategories);
+        // Load the whole active subtree in one query and link each category below its parent
+        Map<Long, Category> byId = new HashMap<>();
+        byId.put(category.getId(), category);
+        category.setSubCategories(new ArrayList<>());
+        for (Category descendant : categoryRepository.findActiveDescendants(id)) {
+            descendant.setSubCategories(new ArrayList<>());
+            byId.put(descendant.getId(), descendant);
+            // Ordered by depth, so a reachable parent has already been added
+            Category parent = byId.get(descendant.getParentCategory().getId());
+            if (parent != null) {
+                parent.getSubCategories().add(descendant);
+            }
+        }
         
         return category;
     }
@@ -264,12 +332,13 @@ public class CategoryService {
             
             Category parentCategory = categoryRepository.findById(newParentId)
                     .orElseThrow(() -> new IllegalArgumentException("Parent category not found with id: " + newParentId));
-            category.setParentCategory(parentCategory);
+            changeParent(category, parentCategory);
         } else {
-            category.setParentCategory(null);
+            changeParent(category, null);
         }
         
         Category savedCategory = categoryRepository.save(category);
+        categoryTreeService.refreshAfterCommit();
         
         log.info("Category moved successfully: {} to parent: {}", savedCategory.getName(), 
                 savedCategory.getParentCategory() != null ? savedCategory.getParentCategory().getName() : "root");
@@ -285,10 +354,8 @@ public class CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Category not found with id: " + id));
         
-        long productCount = categoryRepository.countProductsByCategoryId(id);
-        List<Category> subCategories = categoryRepository.findByParentCategoryId(id);
-        
-        return new CategoryStats(category, productCount, subCategories.size());
+        return new CategoryStats(category, category.getActiveProductCount(), category.getSubCategoryCount(),
+                category.getDescendantCount(), category.getSubtreeProductCount());
     }
     
     /**
@@ -298,43 +365,134 @@ public class CategoryService {
         private final Category category;
         private final long productCount;
         private final int subCategoryCount;
+        private final long descendantCount;
+        private final long subtreeProductCount;
         
-        public CategoryStats(Category category, long productCount, int subCategoryCount) {
+        public CategoryStats(Category category, long productCount, int subCategoryCount,
+                             long descendantCount, long subtreeProductCount) {
             this.category = category;
             this.productCount = productCount;
             this.subCategoryCount = subCategoryCount;
+            this.descendantCount = descendantCount;
+            this.subtreeProductCount = subtreeProductCount;
         }
         
         public Category getCategory() { return category; }
         public long getProductCount() { return productCount; }
         public int getSubCategoryCount() { return subCategoryCount; }
+        public long getDescendantCount() { return descendantCount; }
+        public long getSubtreeProductCount() { return subtreeProductCount; }
     }
     
     /**
      * Get root categories (DTO-based)
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<CategoryResponse> getRootCategories() {
-        List<Category> categories = categoryRepository.findRootCategories();
-        return categories.stream().map(this::mapToCategoryResponse).toList();
+        return categoryTreeService.getTree().getActiveRoots().stream().map(this::mapToCategoryResponse).toList();
     }
     
     /**
      * Get subcategories by parent ID (DTO-based)
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<CategoryResponse> getSubCategories(Long parentId) {
-        List<Category> subcategories = categoryRepository.findByParentCategoryId(parentId);
-        return subcategories.stream().map(this::mapToCategoryResponse).toList();
+        return categoryTreeService.getTree().getActiveChildren(parentId).stream().map(this::mapToCategoryResponse).toList();
     }
     
     /**
      * Search categories (DTO-based)
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Page<CategoryResponse> searchCategories(String search, Pageable pageable) {
-        Page<Category> categories = categoryRepository.searchCategories(search, pageable);
-        return categories.map(this::mapToCategoryResponse);
+        List<CategoryTreeService.CategoryNode> matches = new ArrayList<>(categoryTreeService.getTree().search(search));
+        if (pageable.getSort().isSorted()) {
+            matches.sort(comparator(pageable.getSort()));
+        }
+        
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches.stream().map(this::mapToCategoryResponse).toList(), pageable, matches.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<CategoryResponse> content = matches.subList(from, to).stream().map(this::mapToCategoryResponse).toList();
+        return new PageImpl<>(content, pageable, matches.size());
+    }
+    
+    /**
+     * Comparator for sorting in-memory categories by the sortable category fields
+     */
+    private static Comparator<CategoryTreeService.CategoryNode> comparator(Sort sort) {
+        Comparator<CategoryTreeService.CategoryNode> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<CategoryTreeService.CategoryNode> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(CategoryTreeService.CategoryNode::id);
+                case "name" -> Comparator.comparing(CategoryTreeService.CategoryNode::name, String.CASE_INSENSITIVE_ORDER);
+                case "createdAt" -> Comparator.comparing(CategoryTreeService.CategoryNode::createdAt,
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "updatedAt" -> Comparator.comparing(CategoryTreeService.CategoryNode::updatedAt,
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+                default -> throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+    
+    /**
+     * Set a category's parent, moving its subtree in the closure table and rejecting cycles
+     */
+    private void changeParent(Category category, Category newParent) {
+        Long currentParentId = category.getParentCategory() != null ? category.getParentCategory().getId() : null;
+        Long newParentId = newParent != null ? newParent.getId() : null;
+        if (Objects.equals(currentParentId, newParentId)) {
+            return;
+        }
+        
+        if (newParent != null && categoryClosureRepository.existsByAncestorIdAndDescendantId(category.getId(), newParentId)) {
+            throw new IllegalArgumentException("Category cannot be moved below one of its own subcategories");
+        }
+        
+        // The subtree carries its own categories and products to the new ancestors
+        Object[] subtreeCounts = categoryRepository.findSubtreeCounts(category.getId()).get(0);
+        long categories = ((Number) subtreeCounts[0]).longValue() + 1;
+        long products = ((Number) subtreeCounts[1]).longValue();
+        if (currentParentId != null) {
+            categoryRepository.adjustSubtreeCounts(currentParentId, -1, -categories, -products);
+        }
+        if (newParentId != null) {
+            categoryRepository.adjustSubtreeCounts(newParentId, 1, categories, products);
+        }
+        
+        categoryClosureRepository.detachSubtree(category.getId());
+        if (newParent != null) {
+            categoryClosureRepository.attachSubtree(category.getId(), newParentId);
+        }
+        category.setParentCategory(newParent);
+    }
+    
+    /**
+     * Map an in-memory category tree node to CategoryResponse DTO
+     */
+    private CategoryResponse mapToCategoryResponse(CategoryTreeService.CategoryNode category) {
+        return CategoryResponse.builder()
+                .id(category.id())
+                .name(category.name())
+                .description(category.description())
+                .parentCategoryId(category.parentId())
+                .parentCategoryName(category.parentName())
+                .productCount(category.productCount())
+                .subCategoryCount(category.subCategoryCount())
+                .subtreeProductCount(category.subtreeProductCount())
+                .isActive(category.active())
+                .hasParent(category.parentId() != null)
+                .hasSubCategories(category.subCategoryCount() > 0)
+                .createdAt(category.createdAt())
+                .updatedAt(category.updatedAt())
+                .build();
     }
     
     /**
@@ -347,10 +505,12 @@ public class CategoryService {
                 .description(category.getDescription())
                 .parentCategoryId(category.getParentCategory() != null ? category.getParentCategory().getId() : null)
                 .parentCategoryName(category.getParentCategory() != null ? category.getParentCategory().getName() : null)
-                .productCount(categoryRepository.countProductsByCategoryId(category.getId()))
+                .productCount(category.getActiveProductCount())
+                .subCategoryCount(category.getSubCategoryCount())
+                .subtreeProductCount(category.getSubtreeProductCount())
                 .isActive(category.getIsActive())
                 .hasParent(category.hasParent())
-                .hasSubCategories(category.hasSubCategories())
+                .hasSubCategories(category.getSubCategoryCount() > 0)
                 .createdAt(category.getCreatedAt())
                 .updatedAt(category.getUpdatedAt())
                 .build();
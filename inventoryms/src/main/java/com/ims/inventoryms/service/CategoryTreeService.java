@@ -0,0 +1,226 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.entity.Category;
+import com.ims.inventoryms.repository.CategoryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory snapshot of the whole category tree with the maintained per-category counters.
+ * <p>
+ * The snapshot is immutable and published through a volatile field, so readers never
+ * lock or touch the database. Category and product writes that change the tree or its
+ * counters request a rebuild once their transaction commits; rebuilds reload the
+ * categories on a single background thread, and requests that arrive while one is
+ * pending are coalesced into it. Writes through other nodes are picked up by a periodic
+ * rebuild, which bounds how stale the snapshot can get.
+ */
+@Service
+@Slf4j
+public class CategoryTreeService {
+    
+    private final CategoryRepository categoryRepository;
+    private final ExecutorService rebuildExecutor;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    
+    private volatile CategoryTree tree;
+    
+    public CategoryTreeService(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "category-tree-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Build the initial snapshot
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+        log.info("Category tree loaded with {} categories", tree.byId.size());
+    }
+    
+    /**
+     * Current snapshot, built on first use if the application is not ready yet
+     */
+    public CategoryTree getTree() {
+        CategoryTree current = tree;
+        if (current == null) {
+            synchronized (this) {
+                if (tree == null) {
+                    rebuild();
+                }
+                current = tree;
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Rebuild the snapshot once the current transaction commits
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleRebuild();
+                }
+            });
+        } else {
+            scheduleRebuild();
+        }
+    }
+    
+    /**
+     * Rebuild periodically so changes committed through other nodes are seen
+     */
+    @Scheduled(fixedDelayString = "${categories.tree.refresh-interval-ms}",
+               initialDelayString = "${categories.tree.refresh-interval-ms}")
+    public void refreshPeriodically() {
+        scheduleRebuild();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+    
+    private void scheduleRebuild() {
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        rebuildExecutor.execute(() -> {
+            // Cleared first so that writes committed during the rebuild schedule another one
+            rebuildPending.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Failed to rebuild category tree", e);
+            }
+        });
+    }
+    
+    private synchronized void rebuild() {
+        tree = CategoryTree.build(categoryRepository.findAll());
+    }
+    
+    /**
+     * Immutable category tree
+     */
+    public static final class CategoryTree {
+        
+        private final Map<Long, CategoryNode> byId;
+        private final List<CategoryNode> active;
+        private final List<CategoryNode> activeRoots;
+        private final Map<Long, List<CategoryNode>> activeChildren;
+        
+        private CategoryTree(Map<Long, CategoryNode> byId, List<CategoryNode> active,
+                             List<CategoryNode> activeRoots, Map<Long, List<CategoryNode>> activeChildren) {
+            this.byId = byId;
+            this.active = active;
+            this.activeRoots = activeRoots;
+            this.activeChildren = activeChildren;
+        }
+        
+        private static CategoryTree build(List<Category> categories) {
+            Map<Long, Category> entities = new HashMap<>();
+            for (Category category : categories) {
+                entities.put(category.getId(), category);
+            }
+            
+            Map<Long, CategoryNode> byId = new HashMap<>();
+            for (Category category : categories) {
+                Long parentId = category.getParentCategory() != null ? category.getParentCategory().getId() : null;
+                Category parent = parentId != null ? entities.get(parentId) : null;
+                byId.put(category.getId(), new CategoryNode(
+                        category.getId(),
+                        category.getName(),
+                        category.getDescription(),
+                        parentId,
+                        parent != null ? parent.getName() : null,
+                        category.getIsActive(),
+                        category.getActiveProductCount(),
+                        category.getSubCategoryCount(),
+                        category.getSubtreeProductCount(),
+                        category.getCreatedAt(),
+                        category.getUpdatedAt()));
+            }
+            
+            List<CategoryNode> active = byId.values().stream()
+                    .filter(CategoryNode::active)
+                    .sorted(Comparator.comparing(CategoryNode::id))
+                    .toList();
+            List<CategoryNode> activeRoots = active.stream()
+                    .filter(node -> node.parentId() == null)
+                    .toList();
+            Map<Long, List<CategoryNode>> activeChildren = new HashMap<>();
+            for (CategoryNode node : active) {
+                if (node.parentId() != null) {
+                    activeChildren.computeIfAbsent(node.parentId(), id -> new ArrayList<>()).add(node);
+                }
+            }
+            activeChildren.replaceAll((id, children) -> List.copyOf(children));
+            
+            return new CategoryTree(Map.copyOf(byId), active, activeRoots, Map.copyOf(activeChildren));
+        }
+        
+        public CategoryNode find(Long id) {
+            return byId.get(id);
+        }
+        
+        /**
+         * Active categories in ID order
+         */
+        public List<CategoryNode> getActiveCategories() {
+            return active;
+        }
+        
+        public List<CategoryNode> getActiveRoots() {
+            return activeRoots;
+        }
+        
+        public List<CategoryNode> getActiveChildren(Long parentId) {
+            return activeChildren.getOrDefault(parentId, List.of());
+        }
+        
+        /**
+         * Active categories whose name or description contains the search term, ignoring case
+         */
+        public List<CategoryNode> search(String search) {
+            String term = search.toLowerCase(Locale.ROOT);
+            return active.stream()
+                    .filter(node -> node.name().toLowerCase(Locale.ROOT).contains(term)
+                            || (node.description() != null && node.description().toLowerCase(Locale.ROOT).contains(term)))
+                    .toList();
+        }
+    }
+    
+    /**
+     * One category in the snapshot, with its maintained counters
+     */
+    public record CategoryNode(Long id, String name, String description, Long parentId, String parentName,
+                               boolean active, long productCount, int subCategoryCount, long subtreeProductCount,
+                               LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.ims.inventoryms.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent dashboard sub-queries concurrently on virtual threads.
+ * Each sub-query gets its own read-only transaction and shares one deadline; a
+ * sub-query that fails or misses the deadline yields its fallback value and is
+ * reported as unavailable instead of failing the whole dashboard. Across all scopes at most
+ * {@code dashboard.query.max-concurrency} sub-queries hold a connection at once, so dashboards
+ * cannot drain the connection pool that order traffic depends on.
+ */
+@Component
+@Slf4j
+public class DashboardQueryFanOut {
+    
+    private final TransactionTemplate readOnlyTransaction;
+    private final long timeoutMs;
+    private final Semaphore connectionPermits;
+    
+    public DashboardQueryFanOut(PlatformTransactionManager transactionManager,
+                                @Value("${dashboard.query.timeout-ms}") long timeoutMs,
+                                @Value("${dashboard.query.max-concurrency}") int maxConcurrency) {
+        this.timeoutMs = timeoutMs;
+        this.connectionPermits = new Semaphore(maxConcurrency, true);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs + 999)));
+    }
+    
+    /**
+     * Open a scope; sub-queries forked in it never outlive the scope
+     */
+    public Scope open() {
+        return new Scope();
+    }
+    
+    /**
+     * A group of concurrently running sub-queries
+     */
+    public class Scope implements AutoCloseable {
+        
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private final List<Subtask<?>> subtasks = new ArrayList<>();
+        private final List<String> unavailable = new ArrayList<>();
+        private final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        
+        /**
+         * Start a sub-query in its own read-only transaction once a connection permit is free
+         */
+        public <T> Subtask<T> fork(String name, Supplier<T> query, T fallback) {
+            Future<T> future = executor.submit(() -> {
+                if (!connectionPermits.tryAcquire(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    throw new TimeoutException("No connection permit before the deadline");
+                }
+                try {
+                    return readOnlyTransaction.execute(status -> query.get());
+                } finally {
+                    connectionPermits.release();
+                }
+            });
+            Subtask<T> subtask = new Subtask<>(name, future, fallback);
+            subtasks.add(subtask);
+            return subtask;
+        }
+        
+        /**
+         * Wait for all sub-queries until the deadline, cancelling the ones still running
+         */
+        public List<String> join() {
+            for (Subtask<?> subtask : subtasks) {
+                subtask.await(deadlineNanos);
+                if (!subtask.succeeded) {
+                    unavailable.add(subtask.name);
+                }
+            }
+            return unavailable;
+        }
+        
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Handle to the result of one sub-query
+     */
+    public static class Subtask<T> {
+        
+        private final String name;
+        private final Future<T> future;
+        private final T fallback;
+        private T result;
+        private boolean succeeded;
+        
+        Subtask(String name, Future<T> future, T fallback) {
+            this.name = name;
+            this.future = future;
+            this.fallback = fallback;
+        }
+        
+        /**
+         * Result of the sub-query, or its fallback if it failed or timed out
+         */
+        public T get() {
+            return succeeded ? result : fallback;
+        }
+        
+        private void await(long deadlineNanos) {
+            try {
+                result = future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                succeeded = true;
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("Dashboard query {} timed out", name);
+            } catch (ExecutionException e) {
+                log.error("Dashboard query {} failed", name, e.getCause());
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -7,12 +7,12 @@ import com.ims.inventoryms.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,88 +26,170 @@ import java.util.Map;
 @Transactional(readOnly = true)
 public class DashboardService {
     
+    private static final int TOP_PRODUCTS_LIMIT = 10;
+    
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
+    private final DailySalesRollupService dailySalesRollupService;
+    private final SalesCubeService salesCubeService;
+    private final InventoryValuationService inventoryValuationService;
+    private final DashboardQueryFanOut queryFanOut;
+    private final LiveSalesService liveSalesService;
+    private final SalesSketchService salesSketchService;
     
     /**
-     * Get inventory dashboard data
+     * Get inventory dashboard data; independent sub-queries run concurrently
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public InventoryDashboardResponse getInventoryDashboard() {
-        // Get low stock products
-        List<Product> lowStockProducts = productRepository.findLowStockProducts();
-        List<Product> outOfStockProducts = productRepository.findOutOfStockProducts();
-        
-        // Calculate inventory metrics
-        long totalProducts = productRepository.count();
-        long lowStockCount = lowStockProducts.size();
-        long outOfStockCount = outOfStockProducts.size();
-        long activeProducts = productRepository.findActiveProducts(org.springframework.data.domain.Pageable.unpaged()).getTotalElements();
-        
-        // Calculate total inventory value
-        BigDecimal totalInventoryValue = productRepository.findAll().stream()
-                .filter(Product::getIsActive)
-                .map(p -> p.getCostPrice().multiply(BigDecimal.valueOf(p.getStockQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Get top selling products
-        List<Product> topSellingProducts = productRepository.findTopSellingProducts(
-                org.springframework.data.domain.PageRequest.of(0, 5));
-        
-        // Get recently added products
-        List<Product> recentlyAddedProducts = productRepository.findRecentlyAddedProducts(
-                org.springframework.data.domain.PageRequest.of(0, 5));
-        
-        return InventoryDashboardResponse.builder()
-                .totalProducts(totalProducts)
-                .activeProducts(activeProducts)
-                .lowStockCount(lowStockCount)
-                .outOfStockCount(outOfStockCount)
-                .totalInventoryValue(totalInventoryValue)
-                .lowStockProducts(lowStockProducts.stream().map(this::mapToProductSummary).toList())
-                .outOfStockProducts(outOfStockProducts.stream().map(this::mapToProductSummary).toList())
-                .topSellingProducts(topSellingProducts.stream().map(this::mapToProductSummary).toList())
-                .recentlyAddedProducts(recentlyAddedProducts.stream().map(this::mapToProductSummary).toList())
-                .build();
+        try (DashboardQueryFanOut.Scope scope = queryFanOut.open()) {
+            var lowStockProducts = scope.fork("lowStockProducts", productRepository::findLowStockProducts, List.<Product>of());
+            var outOfStockProducts = scope.fork("outOfStockProducts", productRepository::findOutOfStockProducts, List.<Product>of());
+            var totalProducts = scope.fork("totalProducts", productRepository::count, 0L);
+            var activeProducts = scope.fork("activeProducts", productRepository::countActiveProducts, 0L);
+            var topSellingProducts = scope.fork("topSellingProducts", () -> productRepository.findTopSellingProducts(
+                    org.springframework.data.domain.PageRequest.of(0, 5)), List.<Product>of());
+            var recentlyAddedProducts = scope.fork("recentlyAddedProducts", () -> productRepository.findRecentlyAddedProducts(
+                    org.springframework.data.domain.PageRequest.of(0, 5)), List.<Product>of());
+            List<String> unavailable = scope.join();
+            
+            // Total inventory value is maintained as a running aggregate
+            BigDecimal totalInventoryValue = inventoryValuationService.getTotalValue();
+            
+            return InventoryDashboardResponse.builder()
+                    .totalProducts(totalProducts.get())
+                    .activeProducts(activeProducts.get())
+                    .lowStockCount(lowStockProducts.get().size())
+                    .outOfStockCount(outOfStockProducts.get().size())
+                    .totalInventoryValue(totalInventoryValue)
+                    .inventoryValueByCategory(inventoryValuationService.getValueByCategory())
+                    .inventoryValueBySupplier(inventoryValuationService.getValueBySupplier())
+                    .lowStockProducts(lowStockProducts.get().stream().map(this::mapToProductSummary).toList())
+                    .outOfStockProducts(outOfStockProducts.get().stream().map(this::mapToProductSummary).toList())
+                    .topSellingProducts(topSellingProducts.get().stream().map(this::mapToProductSummary).toList())
+                    .recentlyAddedProducts(recentlyAddedProducts.get().stream().map(this::mapToProductSummary).toList())
+                    .unavailableSections(unavailable)
+                    .build();
+        }
     }
     
     /**
-     * Get sales dashboard data
+     * Get sales dashboard data; independent sub-queries run concurrently
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public SalesDashboardResponse getSalesDashboard(int periodDays) {
         LocalDateTime endDate = LocalDateTime.now();
         LocalDateTime startDate = endDate.minus(periodDays, ChronoUnit.DAYS);
         
-        // Calculate sales metrics
-        BigDecimal totalSales = orderRepository.calculateTotalSales(startDate, endDate);
-        long totalOrders = orderRepository.findCompletedOrders(org.springframework.data.domain.Pageable.unpaged()).getTotalElements();
-        long pendingOrders = orderRepository.countByOrderStatus(com.ims.inventoryms.entity.Order.OrderStatus.PENDING);
-        
-        // Get recent orders
-        List<com.ims.inventoryms.entity.Order> recentOrders = orderRepository.findRecentOrders(
-                org.springframework.data.domain.PageRequest.of(0, 10));
+        try (DashboardQueryFanOut.Scope scope = queryFanOut.open()) {
+            var totalSales = scope.fork("totalSales", () -> orderRepository.calculateTotalSales(startDate, endDate), BigDecimal.ZERO);
+            var completedOrders = scope.fork("totalOrders", orderRepository::countCompletedOrders, 0L);
+            var pendingOrders = scope.fork("pendingOrders", () -> orderRepository.countByOrderStatus(
+                    com.ims.inventoryms.entity.Order.OrderStatus.PENDING), 0L);
+            var recentOrders = scope.fork("recentOrders", () -> orderRepository.findRecentOrders(
+                    org.springframework.data.domain.PageRequest.of(0, 10)), List.<com.ims.inventoryms.entity.Order>of());
+            var dailySales = scope.fork("dailySales", () -> calculateDailySales(startDate, endDate), List.<DailySalesResponse>of());
+            var salesByPaymentMethod = scope.fork("salesByPaymentMethod",
+                    () -> calculateSalesByPaymentMethod(startDate, endDate), Map.<String, Long>of());
+            var uniqueCustomers = scope.fork("uniqueCustomers", () -> salesSketchService.countDistinctCustomers(
+                    startDate.toLocalDate(), endDate.toLocalDate()), 0L);
+            var topProducts = scope.fork("topProducts", () -> findTopProducts(startDate, endDate),
+                    List.<SalesDashboardResponse.TopProduct>of());
+            var orderValuePercentiles = scope.fork("orderValuePercentiles", () -> toPercentiles(
+                    salesSketchService.mergeOrderValues(startDate.toLocalDate(), endDate.toLocalDate())), null);
+            var basketSizePercentiles = scope.fork("basketSizePercentiles", () -> toPercentiles(
+                    salesSketchService.mergeBasketSizes(startDate.toLocalDate(), endDate.toLocalDate())), null);
+            List<String> unavailable = scope.join();
+            
+            // Calculate average order value
+            long totalOrders = completedOrders.get();
+            BigDecimal averageOrderValue = totalOrders > 0 ? 
+                    totalSales.get().divide(BigDecimal.valueOf(totalOrders), 2, java.math.RoundingMode.HALF_UP) : 
+                    BigDecimal.ZERO;
+            
+            return SalesDashboardResponse.builder()
+                    .totalSales(totalSales.get())
+                    .totalOrders(totalOrders)
+                    .pendingOrders(pendingOrders.get())
+                    .averageOrderValue(averageOrderValue)
+                    .periodDays(periodDays)
+                    .startDate(startDate)
+                    .endDate(endDate)
+                    .recentOrders(recentOrders.get().stream().map(this::mapToOrderSummary).toList())
+                    .dailySales(dailySales.get())
+                    .salesByPaymentMethod(salesByPaymentMethod.get())
+                    .uniqueCustomers(uniqueCustomers.get())
+                    .topProducts(topProducts.get())
+                    .orderValuePercentiles(orderValuePercentiles.get())
+                    .basketSizePercentiles(basketSizePercentiles.get())
+                    .unavailableSections(unavailable)
+                    .build();
+        }
+    }
+    
+    /**
+     * Slice the in-memory sales cube, optionally grouped by one dimension
+     */
+    public SalesCubeResponse getSalesCube(SalesCubeService.Slice slice, SalesCubeService.Dimension groupBy) {
+        if (!salesCubeService.covers(slice.startDate())) {
+            throw new IllegalArgumentException("Sales cube only covers the last " + SalesCubeService.RETAINED_DAYS + " days");
+        }
         
-        // Calculate daily sales for chart
-        List<DailySalesResponse> dailySales = calculateDailySales(startDate, endDate);
+        return SalesCubeResponse.builder()
+                .startDate(slice.startDate())
+                .endDate(slice.endDate())
+                .orderStatus(slice.orderStatus())
+                .paymentStatus(slice.paymentStatus())
+                .paymentMethod(slice.paymentMethod())
+                .categoryId(slice.categoryId())
+                .groupBy(groupBy != null ? groupBy.name() : null)
+                .total(salesCubeService.rollup(slice))
+                .groups(groupBy != null ? salesCubeService.groupBy(slice, groupBy) : null)
+                .build();
+    }
+    
+    /**
+     * Get live sales for the last {@code minutes} minutes in buckets of {@code bucketMinutes}
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public LiveSalesResponse getLiveSales(int minutes, int bucketMinutes) {
+        if (minutes < 1 || minutes > LiveSalesService.WINDOW_MINUTES) {
+            throw new IllegalArgumentException("Minutes must be between 1 and " + LiveSalesService.WINDOW_MINUTES);
+        }
+        if (bucketMinutes < 1 || minutes % bucketMinutes != 0) {
+            throw new IllegalArgumentException("Bucket minutes must be positive and divide the window evenly");
+        }
         
-        // Calculate sales by payment method
-        Map<String, Long> salesByPaymentMethod = calculateSalesByPaymentMethod();
+        int bucketCount = minutes / bucketMinutes;
+        long[] orders = new long[bucketCount];
+        long[] revenueCents = new long[bucketCount];
+        long[] units = new long[bucketCount];
+        long endMinute = liveSalesService.currentMinute();
+        liveSalesService.snapshot(endMinute, bucketMinutes, orders, revenueCents, units);
         
-        // Calculate average order value
-        BigDecimal averageOrderValue = totalOrders > 0 ? 
-                totalSales.divide(BigDecimal.valueOf(totalOrders), 2, java.math.RoundingMode.HALF_UP) : 
-                BigDecimal.ZERO;
+        long totalOrders = 0;
+        long totalRevenueCents = 0;
+        long totalUnits = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            totalOrders += orders[i];
+            totalRevenueCents += revenueCents[i];
+            totalUnits += units[i];
+        }
         
-        return SalesDashboardResponse.builder()
-                .totalSales(totalSales)
+        LocalDateTime windowEnd = LocalDateTime.ofInstant(
+                java.time.Instant.ofEpochSecond((endMinute + 1) * 60), java.time.ZoneId.systemDefault());
+        return LiveSalesResponse.builder()
+                .windowStart(windowEnd.minusMinutes(minutes))
+                .windowEnd(windowEnd)
+                .minutes(minutes)
+                .bucketMinutes(bucketMinutes)
+                .orders(orders)
+                .revenueCents(revenueCents)
+                .units(units)
                 .totalOrders(totalOrders)
-                .pendingOrders(pendingOrders)
-                .averageOrderValue(averageOrderValue)
-                .periodDays(periodDays)
-                .startDate(startDate)
-                .endDate(endDate)
-                .recentOrders(recentOrders.stream().map(this::mapToOrderSummary).toList())
-                .dailySales(dailySales)
-                .salesByPaymentMethod(salesByPaymentMethod)
+                .totalRevenue(BigDecimal.valueOf(totalRevenueCents, 2))
+                .totalUnits(totalUnits)
+                .ordersPerMinute((double) totalOrders / minutes)
                 .build();
     }
     
@@ -130,15 +212,43 @@ public class DashboardService {
      * Get sales analytics
      */
     public SalesAnalyticsResponse getSalesAnalytics(LocalDateTime startDate, LocalDateTime endDate) {
-        // Calculate total sales
-        BigDecimal totalSales = orderRepository.calculateTotalSales(startDate, endDate);
+        if (salesCubeService.covers(startDate.toLocalDate())) {
+            BigDecimal totalSales = orderRepository.calculateTotalSales(startDate, endDate);
+            SalesCubeService.Slice slice = new SalesCubeService.Slice(
+                    startDate.toLocalDate(), endDate.toLocalDate(), null, null, null, null);
+            Map<String, Long> salesByStatus = new HashMap<>();
+            salesCubeService.groupBy(slice, SalesCubeService.Dimension.ORDER_STATUS)
+                    .forEach((status, cell) -> salesByStatus.put(status, cell.getOrders()));
+            long totalOrders = salesByStatus.values().stream().mapToLong(Long::longValue).sum();
+            
+            return SalesAnalyticsResponse.builder()
+                    .totalSales(totalSales)
+                    .totalOrders(totalOrders)
+                    .averageOrderValue(totalOrders > 0 ?
+                            totalSales.divide(BigDecimal.valueOf(totalOrders), 2, java.math.RoundingMode.HALF_UP) :
+                            BigDecimal.ZERO)
+                    .startDate(startDate)
+                    .endDate(endDate)
+                    .dailySales(calculateDailySales(startDate, endDate))
+                    .salesByStatus(salesByStatus)
+                    .build();
+        }
         
-        // Get orders in date range
-        List<com.ims.inventoryms.entity.Order> orders = orderRepository.findByOrderDateBetween(
-                startDate, endDate, org.springframework.data.domain.Pageable.unpaged()).getContent();
+        // Counts and sums are aggregated by the database; only one row per status pair comes back
+        Map<String, Long> salesByStatus = new HashMap<>();
+        long totalOrders = 0;
+        BigDecimal totalSales = BigDecimal.ZERO;
+        for (Object[] row : orderRepository.summarizeByStatusBetween(startDate, endDate)) {
+            com.ims.inventoryms.entity.Order.OrderStatus status = (com.ims.inventoryms.entity.Order.OrderStatus) row[0];
+            long count = (Long) row[2];
+            salesByStatus.merge(status.name(), count, Long::sum);
+            totalOrders += count;
+            if (status == com.ims.inventoryms.entity.Order.OrderStatus.DELIVERED
+                    && row[1] == com.ims.inventoryms.entity.Order.PaymentStatus.PAID) {
+                totalSales = totalSales.add((BigDecimal) row[3]);
+            }
+        }
         
-        // Calculate metrics
-        long totalOrders = orders.size();
         BigDecimal averageOrderValue = totalOrders > 0 ? 
                 totalSales.divide(BigDecimal.valueOf(totalOrders), 2, java.math.RoundingMode.HALF_UP) : 
                 BigDecimal.ZERO;
@@ -146,13 +256,6 @@ public class DashboardService {
         // Calculate daily sales
         List<DailySalesResponse> dailySales = calculateDailySales(startDate, endDate);
         
-        // Calculate sales by status
-        Map<String, Long> salesByStatus = new HashMap<>();
-        for (com.ims.inventoryms.entity.Order order : orders) {
-            String status = order.getOrderStatus().name();
-            salesByStatus.put(status, salesByStatus.getOrDefault(status, 0L) + 1);
-        }
-        
         return SalesAnalyticsResponse.builder()
                 .totalSales(totalSales)
                 .totalOrders(totalOrders)
@@ -168,42 +271,72 @@ public class DashboardService {
      * Calculate daily sales for a date range
      */
     private List<DailySalesResponse> calculateDailySales(LocalDateTime startDate, LocalDateTime endDate) {
-        List<DailySalesResponse> dailySales = new ArrayList<>();
-        
-        LocalDateTime currentDate = startDate.toLocalDate().atStartOfDay();
-        while (!currentDate.isAfter(endDate)) {
-            LocalDateTime dayStart = currentDate;
-            LocalDateTime dayEnd = currentDate.plusDays(1).minusSeconds(1);
-            
-            BigDecimal daySales = orderRepository.calculateTotalSales(dayStart, dayEnd);
-            
-            dailySales.add(DailySalesResponse.builder()
-                    .date(dayStart.toLocalDate())
-                    .sales(daySales)
-                    .build());
-            
-            currentDate = currentDate.plusDays(1);
-        }
-        
-        return dailySales;
+        return dailySalesRollupService.getDailySales(startDate.toLocalDate(), endDate.toLocalDate());
     }
     
     /**
      * Calculate sales by payment method
      */
-    private Map<String, Long> calculateSalesByPaymentMethod() {
+    private Map<String, Long> calculateSalesByPaymentMethod(LocalDateTime startDate, LocalDateTime endDate) {
         Map<String, Long> salesByPaymentMethod = new HashMap<>();
         
-        for (com.ims.inventoryms.entity.Order.PaymentMethod method : com.ims.inventoryms.entity.Order.PaymentMethod.values()) {
-            long count = orderRepository.findByPaymentMethod(method, org.springframework.data.domain.Pageable.unpaged()).getTotalElements();
-            if (count > 0) {
-                salesByPaymentMethod.put(method.getDisplayName(), count);
-            }
+        if (salesCubeService.covers(startDate.toLocalDate())) {
+            SalesCubeService.Slice slice = new SalesCubeService.Slice(
+                    startDate.toLocalDate(), endDate.toLocalDate(), null, null, null, null);
+            salesCubeService.groupBy(slice, SalesCubeService.Dimension.PAYMENT_METHOD).forEach((method, cell) -> {
+                if (cell.getOrders() > 0 && !"NONE".equals(method)) {
+                    salesByPaymentMethod.put(com.ims.inventoryms.entity.Order.PaymentMethod.valueOf(method).getDisplayName(),
+                            cell.getOrders());
+                }
+            });
+            return salesByPaymentMethod;
+        }
+        
+        for (Object[] row : orderRepository.countByPaymentMethodBetween(startDate, endDate)) {
+            salesByPaymentMethod.put(((com.ims.inventoryms.entity.Order.PaymentMethod) row[0]).getDisplayName(), (Long) row[1]);
         }
         
         return salesByPaymentMethod;
     }
     
+    /**
+     * Top products by estimated units ordered, from the heavy-hitter sketches
+     */
+    private List<SalesDashboardResponse.TopProduct> findTopProducts(LocalDateTime startDate, LocalDateTime endDate) {
+        List<Map.Entry<Long, Long>> top = salesSketchService.findTopProducts(
+                startDate.toLocalDate(), endDate.toLocalDate(), TOP_PRODUCTS_LIMIT);
+        Map<Long, String> names = new HashMap<>();
+        productRepository.findAllById(top.stream().map(Map.Entry::getKey).toList())
+                .forEach(product -> names.put(product.getId(), product.getName()));
+        
+        return top.stream()
+                .map(entry -> SalesDashboardResponse.TopProduct.builder()
+                        .productId(entry.getKey())
+                        .productName(names.get(entry.getKey()))
+                        .estimatedUnits(entry.getValue())
+                        .build())
+                .toList();
+    }
+    
+    /**
+     * Read p50/p90/p99 from a digest; null values when the period has no orders
+     */
+    private SalesDashboardResponse.Percentiles toPercentiles(com.ims.inventoryms.sketch.TDigest digest) {
+        double p50 = digest.quantile(0.5);
+        if (Double.isNaN(p50)) {
+            return SalesDashboardResponse.Percentiles.builder().build();
+        }
+        return SalesDashboardResponse.Percentiles.builder()
+                .p50(round(p50))
+                .p90(round(digest.quantile(0.9)))
+                .p99(round(digest.quantile(0.99)))
+                .build();
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+    
     /**
      * Map Product entity to ProductSummary DTO
      */
@@ -0,0 +1,184 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.dto.InventoryDashboardResponse;
+import com.ims.inventoryms.dto.SalesDashboardResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate cache of dashboard snapshots, keyed by dashboard type and period.
+ * Requests are answered from the last snapshot; snapshots older than the freshness bound
+ * are recomputed on a background thread, at most one refresh per key at a time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardSnapshotService {
+    
+    private static final String INVENTORY_KEY = "inventory";
+    private static final String SALES_KEY_PREFIX = "sales:";
+    private static final int DEFAULT_SALES_PERIOD_DAYS = 30;
+    private static final int MAX_SNAPSHOTS = 64;
+    
+    private final DashboardService dashboardService;
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-snapshot-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @Value("${dashboard.snapshot.max-age-ms}")
+    private long maxAgeMs;
+    
+    @Value("${dashboard.snapshot.idle-evict-ms}")
+    private long idleEvictMs;
+    
+    /**
+     * Get the inventory dashboard snapshot
+     */
+    public InventoryDashboardResponse getInventoryDashboard() {
+        Snapshot snapshot = get(INVENTORY_KEY, dashboardService::getInventoryDashboard);
+        return ((InventoryDashboardResponse) snapshot.value()).toBuilder()
+                .snapshotTakenAt(snapshot.takenAtLocal())
+                .snapshotAgeMs(snapshot.ageMs())
+                .build();
+    }
+    
+    /**
+     * Get the sales dashboard snapshot for a period
+     */
+    public SalesDashboardResponse getSalesDashboard(int periodDays) {
+        Snapshot snapshot = get(SALES_KEY_PREFIX + periodDays, () -> dashboardService.getSalesDashboard(periodDays));
+        return ((SalesDashboardResponse) snapshot.value()).toBuilder()
+                .snapshotTakenAt(snapshot.takenAtLocal())
+                .snapshotAgeMs(snapshot.ageMs())
+                .build();
+    }
+    
+    /**
+     * Compute the common snapshots before the first request arrives
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        scheduleRefresh(INVENTORY_KEY, entry(INVENTORY_KEY, dashboardService::getInventoryDashboard));
+        String salesKey = SALES_KEY_PREFIX + DEFAULT_SALES_PERIOD_DAYS;
+        scheduleRefresh(salesKey, entry(salesKey, () -> dashboardService.getSalesDashboard(DEFAULT_SALES_PERIOD_DAYS)));
+    }
+    
+    /**
+     * Refresh stale snapshots in the background and drop ones nobody has asked for recently
+     */
+    @Scheduled(fixedDelayString = "${dashboard.snapshot.refresh-interval-ms}")
+    public void refreshStale() {
+        long now = System.currentTimeMillis();
+        entries.forEach((key, entry) -> {
+            if (now - entry.lastAccessMs > idleEvictMs) {
+                entries.remove(key);
+                log.debug("Evicted idle dashboard snapshot {}", key);
+            } else if (entry.isStale(now, maxAgeMs)) {
+                scheduleRefresh(key, entry);
+            }
+        });
+    }
+    
+    private Snapshot get(String key, Supplier<Object> loader) {
+        if (!entries.containsKey(key) && entries.size() >= MAX_SNAPSHOTS) {
+            // Too many distinct periods requested; serve this one uncached
+            return new Snapshot(loader.get(), Instant.now());
+        }
+        Entry entry = entry(key, loader);
+        entry.lastAccessMs = System.currentTimeMillis();
+        
+        Snapshot snapshot = entry.snapshot;
+        if (snapshot == null) {
+            // First request for this key: nothing to serve yet, compute inline
+            synchronized (entry) {
+                if (entry.snapshot == null) {
+                    entry.snapshot = new Snapshot(loader.get(), Instant.now());
+                }
+            }
+            return entry.snapshot;
+        }
+        
+        if (entry.isStale(System.currentTimeMillis(), maxAgeMs)) {
+            scheduleRefresh(key, entry);
+        }
+        return snapshot;
+    }
+    
+    private Entry entry(String key, Supplier<Object> loader) {
+        return entries.computeIfAbsent(key, k -> new Entry(loader));
+    }
+    
+    private void scheduleRefresh(String key, Entry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                entry.snapshot = new Snapshot(entry.loader.get(), Instant.now());
+            } catch (RuntimeException e) {
+                log.error("Failed to refresh dashboard snapshot {}", key, e);
+            } finally {
+                entry.refreshing.set(false);
+            }
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+    
+    /**
+     * A computed dashboard and the time it was taken
+     */
+    private record Snapshot(Object value, Instant takenAt) {
+        
+        long ageMs() {
+            return Duration.between(takenAt, Instant.now()).toMillis();
+        }
+        
+        LocalDateTime takenAtLocal() {
+            return LocalDateTime.ofInstant(takenAt, ZoneId.systemDefault());
+        }
+    }
+    
+    /**
+     * Cache slot for one dashboard key
+     */
+    private static class Entry {
+        private final Supplier<Object> loader;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile Snapshot snapshot;
+        private volatile long lastAccessMs = System.currentTimeMillis();
+        
+        Entry(Supplier<Object> loader) {
+            this.loader = loader;
+        }
+        
+        boolean isStale(long now, long maxAgeMs) {
+            Snapshot current = snapshot;
+            return current == null || now - current.takenAt().toEpochMilli() > maxAgeMs;
+        }
+    }
+}
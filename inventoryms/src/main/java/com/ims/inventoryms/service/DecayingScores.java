@@ -0,0 +1,162 @@
+package com.ims.inventoryms.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Per-key scores with exponential time decay: an amount added one half-life ago counts half
+ * as much as one added now.
+ * <p>
+ * Scores use forward decay. Each amount is added with weight exp(lambda * (t - landmark)),
+ * so an addition only touches its own accumulator and never rescales the others; the common
+ * factor exp(-lambda * (now - landmark)) is applied when reading. The part of each score that
+ * a checkpoint has stored is remembered, so the next checkpoint only takes what was added since.
+ * Checkpoints and {@link #compact} must not run concurrently with each other.
+ */
+final class DecayingScores {
+
+    // Rebase the landmark before the forward weights grow large enough to lose precision
+    private static final double REBASE_EXPONENT = 32;
+
+    private final double decayRate;
+    private volatile Accumulators current;
+
+    DecayingScores(double halfLifeMs, long landmarkMs) {
+        this.decayRate = Math.log(2) / halfLifeMs;
+        this.current = new Accumulators(landmarkMs);
+    }
+
+    /**
+     * Add an amount that happened at the given time
+     */
+    void add(Long key, double amount, long atMs) {
+        Accumulators accumulators = current;
+        double weight = Math.exp(decayRate * (atMs - accumulators.landmarkMs));
+        accumulators.values.computeIfAbsent(key, k -> new DoubleAdder()).add(amount * weight);
+    }
+
+    /**
+     * Factor by which a score decays between two times
+     */
+    double decay(long fromMs, long toMs) {
+        return Math.exp(-decayRate * (toMs - fromMs));
+    }
+
+    /**
+     * Scores added since the last stored checkpoint, decayed to the given time
+     */
+    Map<Long, Double> pending(long nowMs) {
+        Accumulators accumulators = current;
+        double factor = decay(accumulators.landmarkMs, nowMs);
+        Map<Long, Double> pending = new HashMap<>();
+        accumulators.values.forEach((key, value) -> {
+            double delta = value.sum() - accumulators.checkpointed.getOrDefault(key, 0.0);
+            if (delta != 0) {
+                pending.put(key, delta * factor);
+            }
+        });
+        return pending;
+    }
+
+    /**
+     * Start a checkpoint of the scores added since the last stored one, decayed to the given time.
+     * They stay pending until the checkpoint is passed to {@link #stored}.
+     */
+    Checkpoint checkpoint(long nowMs) {
+        Accumulators accumulators = current;
+        double factor = decay(accumulators.landmarkMs, nowMs);
+        Map<Long, Double> deltas = new HashMap<>();
+        Map<Long, Double> sums = new HashMap<>();
+        accumulators.values.forEach((key, value) -> {
+            double sum = value.sum();
+            double delta = sum - accumulators.checkpointed.getOrDefault(key, 0.0);
+            if (delta != 0) {
+                deltas.put(key, delta * factor);
+                sums.put(key, sum);
+            }
+        });
+        return new Checkpoint(accumulators, deltas, sums);
+    }
+
+    /**
+     * Record that a checkpoint's deltas have been stored
+     */
+    void stored(Checkpoint checkpoint) {
+        if (checkpoint.source == current) {
+            checkpoint.source.checkpointed.putAll(checkpoint.sums);
+        }
+    }
+
+    /**
+     * Drop keys that are fully checkpointed and have decayed below {@code minScore}, and move the
+     * landmark to now once it is old enough, carrying over what is not checkpointed yet. An amount
+     * added concurrently with either can be lost; keys are only dropped once negligible and the
+     * landmark moves only every few months.
+     */
+    void compact(long nowMs, double minScore) {
+        Accumulators accumulators = current;
+        double factor = decay(accumulators.landmarkMs, nowMs);
+        accumulators.values.forEach((key, value) -> {
+            double sum = value.sum();
+            Double checkpointed = accumulators.checkpointed.get(key);
+            if (checkpointed != null && checkpointed == sum && Math.abs(sum * factor) < minScore) {
+                accumulators.values.remove(key, value);
+                accumulators.checkpointed.remove(key);
+            }
+        });
+
+        if (decayRate * (nowMs - accumulators.landmarkMs) < REBASE_EXPONENT) {
+            return;
+        }
+        Accumulators rebased = new Accumulators(nowMs);
+        current = rebased;
+        accumulators.values.forEach((key, value) -> {
+            double delta = value.sum() - accumulators.checkpointed.getOrDefault(key, 0.0);
+            if (delta != 0) {
+                rebased.values.computeIfAbsent(key, k -> new DoubleAdder()).add(delta * factor);
+            }
+        });
+    }
+
+    /**
+     * Number of keys held in memory
+     */
+    int size() {
+        return current.values.size();
+    }
+
+    /**
+     * Scores taken by a checkpoint, decayed to its time
+     */
+    static final class Checkpoint {
+        private final Accumulators source;
+        private final Map<Long, Double> deltas;
+        private final Map<Long, Double> sums;
+
+        private Checkpoint(Accumulators source, Map<Long, Double> deltas, Map<Long, Double> sums) {
+            this.source = source;
+            this.deltas = deltas;
+            this.sums = sums;
+        }
+
+        Map<Long, Double> deltas() {
+            return deltas;
+        }
+    }
+
+    /**
+     * Forward-decayed accumulators relative to a landmark time
+     */
+    private static final class Accumulators {
+        private final long landmarkMs;
+        private final Map<Long, DoubleAdder> values = new ConcurrentHashMap<>();
+        // Forward value of each key already stored by a checkpoint
+        private final Map<Long, Double> checkpointed = new ConcurrentHashMap<>();
+
+        private Accumulators(long landmarkMs) {
+            this.landmarkMs = landmarkMs;
+        }
+    }
+}
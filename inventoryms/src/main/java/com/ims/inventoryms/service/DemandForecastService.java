@@ -0,0 +1,234 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.dto.ReorderSuggestionResponse;
+import com.ims.inventoryms.entity.Product;
+import com.ims.inventoryms.entity.ProductDemandForecast;
+import com.ims.inventoryms.event.OrderChangedEvent;
+import com.ims.inventoryms.repository.OrderItemRepository;
+import com.ims.inventoryms.repository.ProductDemandForecastRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Incremental demand forecasting per product with derived reorder points.
+ * <p>
+ * Daily demand is an exponentially weighted moving average of units per day, with an
+ * exponentially weighted variance for safety stock. Order events only touch the forecast
+ * rows of the products in the order. The reorder point covers demand over the lead time
+ * plus safety stock; the order-up-to level also covers the review period.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class DemandForecastService {
+    
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO product_demand_forecasts (product_id, daily_demand, demand_variance, current_day, " +
+            "current_day_units, reorder_point, order_up_to_level, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final ProductDemandForecastRepository forecastRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${forecast.alpha}")
+    private double alpha;
+    
+    @Value("${forecast.lead-time-days}")
+    private int leadTimeDays;
+    
+    @Value("${forecast.review-period-days}")
+    private int reviewPeriodDays;
+    
+    @Value("${forecast.service-level-z}")
+    private double serviceLevelZ;
+    
+    @Value("${forecast.history-days}")
+    private int historyDays;
+    
+    @Value("${forecast.write-back}")
+    private boolean writeBack;
+    
+    private DemandSmoothing smoothing;
+    
+    @PostConstruct
+    public void init() {
+        smoothing = new DemandSmoothing(alpha, leadTimeDays, reviewPeriodDays, serviceLevelZ);
+    }
+    
+    /**
+     * Record ordered units, or remove them again when an order placed today is cancelled.
+     * Runs inside the transaction that changed the order, so rows are locked once per product
+     * and in product ID order to keep concurrent orders from deadlocking.
+     */
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        long sign;
+        if (event.isCreated()) {
+            sign = 1;
+        } else if (event.isCancelled() && !event.wasCancelled()) {
+            sign = -1;
+        } else {
+            return;
+        }
+        
+        Map<Long, Long> unitsByProduct = new TreeMap<>();
+        for (OrderChangedEvent.Line line : event.getLines()) {
+            unitsByProduct.merge(line.getProductId(), (long) line.getQuantity(), Long::sum);
+        }
+        
+        LocalDate day = event.getOrderDate().toLocalDate();
+        for (Map.Entry<Long, Long> units : unitsByProduct.entrySet()) {
+            forecastRepository.insertIfAbsent(units.getKey(), day);
+            ProductDemandForecast forecast = forecastRepository.findForUpdate(units.getKey()).orElseThrow();
+            if (day.isBefore(forecast.getCurrentDay())) {
+                // The day has already been folded into the smoothed demand
+                continue;
+            }
+            smoothing.advance(forecast, day);
+            forecast.setCurrentDayUnits(Math.max(0, forecast.getCurrentDayUnits() + sign * units.getValue()));
+            smoothing.updateLevels(forecast);
+            forecastRepository.save(forecast);
+        }
+    }
+    
+    /**
+     * Products at or below their forecast reorder point, largest shortfall first
+     */
+    @Transactional(readOnly = true)
+    public Page<ReorderSuggestionResponse> getReorderSuggestions(Pageable pageable) {
+        return forecastRepository.findReorderSuggestions(pageable).map(row -> {
+            Product product = (Product) row[0];
+            ProductDemandForecast forecast = (ProductDemandForecast) row[1];
+            return ReorderSuggestionResponse.builder()
+                    .productId(product.getId())
+                    .productName(product.getName())
+                    .sku(product.getSku())
+                    .stockQuantity(product.getStockQuantity())
+                    .minStockLevel(product.getMinStockLevel())
+                    .maxStockLevel(product.getMaxStockLevel())
+                    .dailyDemand(Math.round(forecast.getDailyDemand() * 100) / 100.0)
+                    .reorderPoint(forecast.getReorderPoint())
+                    .orderUpToLevel(forecast.getOrderUpToLevel())
+                    .suggestedOrderQuantity(Math.max(0, forecast.getOrderUpToLevel() - product.getStockQuantity()))
+                    .build();
+        });
+    }
+    
+    /**
+     * Roll every forecast forward to today so products without recent orders decay,
+     * then optionally copy the levels into the products' stock levels.
+     * Each batch is locked in product ID order, like order events lock their rows, and
+     * committed on its own so order placement only waits for one batch at a time.
+     */
+    @Scheduled(cron = "${forecast.refresh-cron}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void refreshForecasts() {
+        LocalDate today = LocalDate.now();
+        long afterId = 0;
+        int refreshed = 0;
+        while (true) {
+            long lastId = afterId;
+            List<ProductDemandForecast> batch = transactionTemplate.execute(status -> {
+                List<ProductDemandForecast> locked = forecastRepository.findAfterForUpdate(
+                        lastId, PageRequest.of(0, BATCH_SIZE));
+                for (ProductDemandForecast forecast : locked) {
+                    smoothing.advance(forecast, today);
+                    smoothing.updateLevels(forecast);
+                }
+                return forecastRepository.saveAll(locked);
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).getProductId();
+            refreshed += batch.size();
+        }
+        
+        if (writeBack) {
+            Integer updated = transactionTemplate.execute(status -> forecastRepository.writeBackStockLevels());
+            log.info("Refreshed {} demand forecasts and wrote stock levels for {} products", refreshed, updated);
+        } else {
+            log.info("Refreshed {} demand forecasts", refreshed);
+        }
+    }
+    
+    /**
+     * Seed forecasts from order history the first time the engine is deployed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (forecastRepository.count() > 0) {
+            return;
+        }
+        
+        // Rows are collected first: no other statement may run while the result set streams
+        LocalDate today = LocalDate.now();
+        List<ProductDemandForecast> forecasts = new ArrayList<>();
+        ProductDemandForecast forecast = null;
+        try (Stream<Object[]> rows = orderItemRepository.streamDailyProductUnitsSince(
+                today.minusDays(historyDays).atStartOfDay())) {
+            for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); ) {
+                Object[] row = it.next();
+                Long productId = ((Number) row[0]).longValue();
+                LocalDate day = toLocalDate(row[1]);
+                if (forecast == null || !forecast.getProductId().equals(productId)) {
+                    if (forecast != null) {
+                        forecasts.add(finishSeed(forecast, today));
+                    }
+                    forecast = new ProductDemandForecast(productId, day);
+                }
+                smoothing.advance(forecast, day);
+                forecast.setCurrentDayUnits(((Number) row[2]).longValue());
+            }
+        }
+        if (forecast != null) {
+            forecasts.add(finishSeed(forecast, today));
+        }
+        
+        jdbcTemplate.batchUpdate(INSERT_SQL, forecasts, BATCH_SIZE, (statement, seeded) -> {
+            statement.setLong(1, seeded.getProductId());
+            statement.setDouble(2, seeded.getDailyDemand());
+            statement.setDouble(3, seeded.getDemandVariance());
+            statement.setObject(4, seeded.getCurrentDay());
+            statement.setLong(5, seeded.getCurrentDayUnits());
+            statement.setInt(6, seeded.getReorderPoint());
+            statement.setInt(7, seeded.getOrderUpToLevel());
+            statement.setObject(8, seeded.getUpdatedAt());
+        });
+        log.info("Demand forecasts seeded for {} products from {} days of order history", forecasts.size(), historyDays);
+    }
+    
+    private ProductDemandForecast finishSeed(ProductDemandForecast forecast, LocalDate today) {
+        smoothing.advance(forecast, today);
+        smoothing.updateLevels(forecast);
+        return forecast;
+    }
+    
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
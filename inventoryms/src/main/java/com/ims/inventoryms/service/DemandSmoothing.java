@@ -0,0 +1,68 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.entity.ProductDemandForecast;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Exponential smoothing of a product's daily demand and its variance, and the stock levels
+ * derived from them
+ */
+final class DemandSmoothing {
+    
+    // Beyond this many idle days the smoothed demand has decayed to practically nothing
+    private static final int MAX_CATCH_UP_DAYS = 365;
+    
+    private final double alpha;
+    private final int leadTimeDays;
+    private final int reviewPeriodDays;
+    private final double serviceLevelZ;
+    
+    DemandSmoothing(double alpha, int leadTimeDays, int reviewPeriodDays, double serviceLevelZ) {
+        this.alpha = alpha;
+        this.leadTimeDays = leadTimeDays;
+        this.reviewPeriodDays = reviewPeriodDays;
+        this.serviceLevelZ = serviceLevelZ;
+    }
+    
+    /**
+     * Fold completed days up to (excluding) the given day into the smoothed demand and variance
+     */
+    void advance(ProductDemandForecast forecast, LocalDate day) {
+        long days = ChronoUnit.DAYS.between(forecast.getCurrentDay(), day);
+        if (days <= 0) {
+            return;
+        }
+        
+        double level = forecast.getDailyDemand();
+        double variance = forecast.getDemandVariance();
+        double units = forecast.getCurrentDayUnits();
+        for (long i = 0; i < Math.min(days, MAX_CATCH_UP_DAYS); i++) {
+            double error = units - level;
+            level += alpha * error;
+            variance = (1 - alpha) * (variance + alpha * error * error);
+            // Every day after the first one in the gap had no orders
+            units = 0;
+        }
+        
+        forecast.setDailyDemand(level);
+        forecast.setDemandVariance(variance);
+        forecast.setCurrentDay(day);
+        forecast.setCurrentDayUnits(0L);
+    }
+    
+    /**
+     * Derive the reorder point and order-up-to level from the smoothed demand and variance
+     */
+    void updateLevels(ProductDemandForecast forecast) {
+        double demand = forecast.getDailyDemand();
+        double sigma = Math.sqrt(forecast.getDemandVariance());
+        int coverDays = leadTimeDays + reviewPeriodDays;
+        
+        forecast.setReorderPoint((int) Math.ceil(demand * leadTimeDays + serviceLevelZ * sigma * Math.sqrt(leadTimeDays)));
+        forecast.setOrderUpToLevel((int) Math.ceil(demand * coverDays + serviceLevelZ * sigma * Math.sqrt(coverDays)));
+        forecast.setUpdatedAt(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,120 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.entity.ProductValuationListener.Valuation;
+import com.ims.inventoryms.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running inventory valuation (cost price x stock of active products), overall,
+ * per category and per supplier. Product writes apply deltas after commit; a
+ * periodic reconciliation recomputes the totals with one aggregate query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryValuationService {
+    
+    private final ProductRepository productRepository;
+    
+    private volatile Totals totals = new Totals();
+    
+    /**
+     * Apply the change between two valuations of a product once the transaction commits.
+     * Either side may be null for created or deleted products.
+     */
+    public void applyChange(Valuation previous, Valuation current) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    totals.apply(previous, current);
+                }
+            });
+        } else {
+            totals.apply(previous, current);
+        }
+    }
+    
+    /**
+     * Recompute all totals from the products table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${inventory.valuation.reconcile-interval-ms}",
+               initialDelayString = "${inventory.valuation.reconcile-interval-ms}")
+    public void reconcile() {
+        List<Object[]> rows = productRepository.sumInventoryValueByCategoryAndSupplier();
+        
+        Totals fresh = new Totals();
+        for (Object[] row : rows) {
+            Long categoryId = (Long) row[0];
+            String supplier = row[1] != null ? (String) row[1] : "";
+            long valueCents = Money.toCents((BigDecimal) row[2]);
+            fresh.apply(null, new Valuation(categoryId, supplier, valueCents));
+        }
+        
+        long drift = fresh.total.sum() - totals.total.sum();
+        totals = fresh;
+        if (drift != 0) {
+            log.info("Inventory valuation reconciled, corrected drift of {} cents", drift);
+        }
+    }
+    
+    public BigDecimal getTotalValue() {
+        return BigDecimal.valueOf(totals.total.sum(), 2);
+    }
+    
+    public Map<Long, BigDecimal> getValueByCategory() {
+        Map<Long, BigDecimal> result = new HashMap<>();
+        totals.byCategory.forEach((categoryId, value) -> result.put(categoryId, BigDecimal.valueOf(value.sum(), 2)));
+        return result;
+    }
+    
+    public Map<String, BigDecimal> getValueBySupplier() {
+        Map<String, BigDecimal> result = new HashMap<>();
+        totals.bySupplier.forEach((supplier, value) -> result.put(supplier, BigDecimal.valueOf(value.sum(), 2)));
+        return result;
+    }
+    
+    /**
+     * Mutable running totals; replaced wholesale on reconciliation
+     */
+    private static class Totals {
+        private final LongAdder total = new LongAdder();
+        private final ConcurrentHashMap<Long, LongAdder> byCategory = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, LongAdder> bySupplier = new ConcurrentHashMap<>();
+        
+        void apply(Valuation previous, Valuation current) {
+            if (previous != null) {
+                add(previous, -previous.valueCents());
+            }
+            if (current != null) {
+                add(current, current.valueCents());
+            }
+        }
+        
+        private void add(Valuation valuation, long cents) {
+            if (cents == 0) {
+                return;
+            }
+            total.add(cents);
+            if (valuation.categoryId() != null) {
+                byCategory.computeIfAbsent(valuation.categoryId(), id -> new LongAdder()).add(cents);
+            }
+            bySupplier.computeIfAbsent(valuation.supplier(), s -> new LongAdder()).add(cents);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.ims.inventoryms.service;
 
+import com.ims.inventoryms.config.JwtPrincipal;
 import com.ims.inventoryms.config.JwtUtils;
+import com.ims.inventoryms.entity.Role;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -35,6 +38,28 @@ public class JwtService {
         return jwtUtils.extractUsername(token);
     }
     
+    /**
+     * Build the principal from verified claims, or null for tokens issued without user claims
+     */
+    public JwtPrincipal toPrincipal(Claims claims) {
+        Number userId = claims.get(JwtUtils.CLAIM_USER_ID, Number.class);
+        String role = claims.get(JwtUtils.CLAIM_ROLE, String.class);
+        Number statusVersion = claims.get(JwtUtils.CLAIM_STATUS_VERSION, Number.class);
+        if (userId == null || role == null || statusVersion == null) {
+            return null;
+        }
+        return new JwtPrincipal(userId.longValue(), claims.getSubject(), Role.RoleName.valueOf(role), statusVersion.longValue());
+    }
+    
+    /**
+     * Verify a token and return its claims
+     *
+     * @throws io.jsonwebtoken.JwtException if the signature is invalid or the token has expired
+     */
+    public Claims parseClaims(String token) {
+        return jwtUtils.parseClaims(token);
+    }
+    
     /**
      * Validate token
      */
@@ -49,6 +74,13 @@ public class JwtService {
         return jwtUtils.isRefreshToken(token);
     }
     
+    /**
+     * Check if verified claims belong to a refresh token
+     */
+    public boolean isRefreshToken(Claims claims) {
+        return JwtUtils.isRefreshToken(claims);
+    }
+    
     /**
      * Get token expiration time
      */
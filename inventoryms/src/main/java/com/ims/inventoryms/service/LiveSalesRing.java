@@ -0,0 +1,118 @@
+package com.ims.inventoryms.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free ring buffer of per-minute sales buckets.
+ * <p>
+ * Each slot is stamped with the epoch minute it holds; a writer that finds an old stamp
+ * claims the slot with a CAS, clears it and publishes the new stamp. Buckets hold order
+ * count, revenue in cents and units.
+ */
+final class LiveSalesRing {
+
+    private static final int MEASURES = 3;
+    private static final int ORDERS = 0;
+    private static final int REVENUE_CENTS = 1;
+    private static final int UNITS = 2;
+    // Stamp of a slot that is being cleared by another writer
+    private static final long CLEARING = -1L;
+
+    private final int windowMinutes;
+    private final AtomicLongArray stamps;
+    private final AtomicLongArray buckets;
+
+    LiveSalesRing(int windowMinutes) {
+        this.windowMinutes = windowMinutes;
+        this.stamps = new AtomicLongArray(windowMinutes);
+        this.buckets = new AtomicLongArray(windowMinutes * MEASURES);
+    }
+
+    /**
+     * Add to the bucket of a minute. Minutes that are no longer within the window ending at
+     * {@code currentMinute}, or whose slot already holds a newer minute, are dropped.
+     */
+    void add(long minute, long currentMinute, long orders, long revenueCents, long units) {
+        if (currentMinute - minute >= windowMinutes) {
+            return;
+        }
+        int slot = slot(minute);
+        if (!claim(slot, minute)) {
+            return;
+        }
+        int offset = slot * MEASURES;
+        buckets.addAndGet(offset + ORDERS, orders);
+        buckets.addAndGet(offset + REVENUE_CENTS, revenueCents);
+        buckets.addAndGet(offset + UNITS, units);
+    }
+
+    /**
+     * Copy the last {@code orders.length * bucketMinutes} minutes ending at {@code endMinute}
+     * into the given arrays, oldest first, each element summing {@code bucketMinutes} minutes.
+     * Does not allocate.
+     */
+    void snapshot(long endMinute, int bucketMinutes, long[] orders, long[] revenueCents, long[] units) {
+        int count = orders.length;
+        long firstMinute = endMinute - (long) count * bucketMinutes + 1;
+        for (int b = 0; b < count; b++) {
+            long orderSum = 0;
+            long revenueSum = 0;
+            long unitSum = 0;
+            for (int m = 0; m < bucketMinutes; m++) {
+                long minute = firstMinute + (long) b * bucketMinutes + m;
+                if (endMinute - minute >= windowMinutes) {
+                    continue;
+                }
+                int slot = slot(minute);
+                if (stamps.get(slot) != minute) {
+                    continue;
+                }
+                int offset = slot * MEASURES;
+                long o = buckets.get(offset + ORDERS);
+                long r = buckets.get(offset + REVENUE_CENTS);
+                long u = buckets.get(offset + UNITS);
+                // Discard the read if the slot was recycled for another minute meanwhile
+                if (stamps.get(slot) == minute) {
+                    orderSum += o;
+                    revenueSum += r;
+                    unitSum += u;
+                }
+            }
+            orders[b] = orderSum;
+            revenueCents[b] = revenueSum;
+            units[b] = unitSum;
+        }
+    }
+
+    /**
+     * Make sure the slot holds the given minute, recycling it if it holds an older one.
+     * Returns false if the slot already moved on to a newer minute.
+     */
+    private boolean claim(int slot, long minute) {
+        while (true) {
+            long stamp = stamps.get(slot);
+            if (stamp == minute) {
+                return true;
+            }
+            if (stamp == CLEARING) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (stamp > minute) {
+                return false;
+            }
+            if (stamps.compareAndSet(slot, stamp, CLEARING)) {
+                int offset = slot * MEASURES;
+                buckets.set(offset + ORDERS, 0);
+                buckets.set(offset + REVENUE_CENTS, 0);
+                buckets.set(offset + UNITS, 0);
+                stamps.set(slot, minute);
+                return true;
+            }
+        }
+    }
+
+    private int slot(long minute) {
+        return (int) Math.floorMod(minute, (long) windowMinutes);
+    }
+}
@@ -0,0 +1,177 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.entity.Order;
+import com.ims.inventoryms.event.OrderChangedEvent;
+import com.ims.inventoryms.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-minute sales of the last 24 hours, kept in a lock-free {@link LiveSalesRing}.
+ * Buckets hold order count, revenue in cents and units of orders that are not cancelled,
+ * keyed by the minute the order was placed.
+ * <p>
+ * This node's commits are applied as they happen. The ring is also rebuilt from the database
+ * at startup and every {@code sales.live.resync-interval-ms}, so orders placed or cancelled
+ * through other nodes show up within one interval. Changes committed during a rebuild are
+ * buffered and reconciled with the rebuild's snapshot, so none is counted twice or lost.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiveSalesService {
+
+    public static final int WINDOW_MINUTES = 24 * 60;
+
+    private final OrderRepository orderRepository;
+
+    private volatile LiveSalesRing ring = new LiveSalesRing(WINDOW_MINUTES);
+    // Changes committed while the ring is rebuilt, or null between rebuilds; guarded by its own monitor
+    private volatile List<OrderChangedEvent> pendingEvents = new ArrayList<>();
+
+    /**
+     * Fill the buffer with orders placed in the last 24 hours
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        int orders = rebuild();
+        log.info("Live sales buffer loaded with {} orders", orders);
+    }
+
+    /**
+     * Rebuild the buffer from the database to pick up changes made through other nodes
+     */
+    @Scheduled(fixedDelayString = "${sales.live.resync-interval-ms}",
+               initialDelayString = "${sales.live.resync-interval-ms}")
+    @Transactional(readOnly = true)
+    public void resync() {
+        int orders = rebuild();
+        log.debug("Live sales buffer resynchronized with {} orders", orders);
+    }
+
+    /**
+     * Apply order changes once the transaction that made them has committed
+     */
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        List<OrderChangedEvent> pending = pendingEvents;
+        if (pending != null) {
+            synchronized (pending) {
+                if (pendingEvents == pending) {
+                    pending.add(event);
+                    return;
+                }
+            }
+        }
+        apply(ring, event);
+    }
+
+    /**
+     * Current epoch minute
+     */
+    public long currentMinute() {
+        return System.currentTimeMillis() / 60_000L;
+    }
+
+    /**
+     * Copy the last {@code orders.length * bucketMinutes} minutes ending at {@code endMinute}
+     * into the given arrays, oldest first, each element summing {@code bucketMinutes} minutes.
+     * Does not allocate.
+     */
+    public void snapshot(long endMinute, int bucketMinutes, long[] orders, long[] revenueCents, long[] units) {
+        ring.snapshot(endMinute, bucketMinutes, orders, revenueCents, units);
+    }
+
+    /**
+     * Build a new ring from one snapshot of the last 24 hours and swap it in, then apply the
+     * buffered changes that snapshot did not include. Returns the number of orders loaded.
+     */
+    private synchronized int rebuild() {
+        List<OrderChangedEvent> pending = pendingEvents;
+        if (pending == null) {
+            pending = new ArrayList<>();
+            // Set before the first query, which fixes the snapshot
+            pendingEvents = pending;
+        }
+
+        long now = currentMinute();
+        LiveSalesRing fresh = new LiveSalesRing(WINDOW_MINUTES);
+        LocalDateTime since = LocalDateTime.now().minusMinutes(WINDOW_MINUTES - 1);
+        int orders = 0;
+        for (Object[] row : orderRepository.summarizeLiveOrdersSince(since)) {
+            fresh.add(toMinute((LocalDateTime) row[0]), now, 1, Money.toCents((BigDecimal) row[1]), ((Number) row[2]).longValue());
+            orders++;
+        }
+
+        synchronized (pending) {
+            replayPendingEvents(pending, fresh);
+            ring = fresh;
+            pendingEvents = null;
+        }
+        return orders;
+    }
+
+    /**
+     * Apply buffered events that the snapshot did not already include. The snapshot's view of each
+     * order is read in the same transaction; events are skipped until one starts from that state.
+     */
+    private void replayPendingEvents(List<OrderChangedEvent> pending, LiveSalesRing target) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Set<Long> orderIds = new HashSet<>();
+        pending.forEach(event -> orderIds.add(event.getOrderId()));
+        Map<Long, String> scannedStates = new HashMap<>();
+        for (Object[] row : orderRepository.findStatusesByIdIn(orderIds)) {
+            scannedStates.put((Long) row[0], stateKey((Order.OrderStatus) row[1], (Order.PaymentStatus) row[2]));
+        }
+
+        for (OrderChangedEvent event : pending) {
+            String known = scannedStates.get(event.getOrderId());
+            boolean seen = event.isCreated()
+                    ? known != null
+                    : !stateKey(event.getPreviousOrderStatus(), event.getPreviousPaymentStatus()).equals(known);
+            if (!seen) {
+                apply(target, event);
+                // Later changes of this order follow on from this one
+                scannedStates.put(event.getOrderId(), stateKey(event.getOrderStatus(), event.getPaymentStatus()));
+            }
+        }
+    }
+
+    private void apply(LiveSalesRing target, OrderChangedEvent event) {
+        boolean counted = !event.isCancelled();
+        boolean wasCounted = !event.isCreated() && !event.wasCancelled();
+        if (counted == wasCounted) {
+            return;
+        }
+        int sign = counted ? 1 : -1;
+        target.add(toMinute(event.getOrderDate()), currentMinute(), sign, sign * Money.toCents(event.getTotalAmount()),
+                sign * (long) event.getTotalQuantity());
+    }
+
+    private static String stateKey(Order.OrderStatus status, Order.PaymentStatus payment) {
+        return status + "/" + payment;
+    }
+
+    private static long toMinute(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond() / 60;
+    }
+}
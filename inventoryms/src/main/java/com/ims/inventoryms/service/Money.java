@@ -0,0 +1,20 @@
+package com.ims.inventoryms.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between monetary amounts and the whole cents kept in in-memory counters
+ */
+final class Money {
+    
+    private Money() {
+    }
+    
+    /**
+     * Amount in whole cents, rounding half up; null counts as zero
+     */
+    static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+}
@@ -0,0 +1,371 @@
+package com.ims.inventoryms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ims.inventoryms.dto.OrderResponse;
+import com.ims.inventoryms.entity.Order;
+import com.ims.inventoryms.entity.OrderReadModel;
+import com.ims.inventoryms.repository.OrderItemRepository;
+import com.ims.inventoryms.repository.OrderReadModelRepository;
+import com.ims.inventoryms.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage tier for old orders in a terminal state.
+ * Archived orders are written to immutable segment files made of independently
+ * gzip-compressed blocks of JSON lines, sorted by order number. Each segment has a
+ * sparse index (first order number and ID bounds per block) that is kept in memory,
+ * so a lookup decompresses a single block. Small segments from successive runs are
+ * compacted into larger ones to keep the number of segments low.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiveService {
+
+    private static final List<Order.OrderStatus> TERMINAL_STATUSES =
+            List.of(Order.OrderStatus.DELIVERED, Order.OrderStatus.CANCELLED);
+    private static final int ORDERS_PER_BLOCK = 64;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderReadModelRepository orderReadModelRepository;
+    private final OrderReadModelService orderReadModelService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final List<SegmentIndex> segments = new CopyOnWriteArrayList<>();
+
+    @Value("${archive.orders.directory}")
+    private String archiveDirectory;
+
+    @Value("${archive.orders.min-age-days}")
+    private int minAgeDays;
+
+    @Value("${archive.orders.batch-size}")
+    private int batchSize;
+
+    @Value("${archive.orders.segment-max-orders}")
+    private int segmentMaxOrders;
+
+    /**
+     * Load segment indexes from disk
+     */
+    @PostConstruct
+    public void loadSegments() throws IOException {
+        Path directory = Files.createDirectories(Path.of(archiveDirectory));
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path indexFile : files.filter(f -> f.toString().endsWith(INDEX_SUFFIX)).sorted().toList()) {
+                segments.add(objectMapper.readValue(indexFile.toFile(), SegmentIndex.class));
+            }
+        }
+        log.info("Loaded {} order archive segments from {}", segments.size(), directory);
+    }
+
+    /**
+     * Move old terminal orders from the hot tables into archive segments, then compact
+     */
+    @Scheduled(cron = "${archive.orders.cron}")
+    public void archiveOldOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+        int archived = 0;
+
+        List<OrderReadModel> batch;
+        while (!(batch = orderReadModelRepository.findArchivable(
+                TERMINAL_STATUSES, cutoff, PageRequest.of(0, batchSize))).isEmpty()) {
+            try {
+                archiveBatch(batch);
+            } catch (IOException e) {
+                log.error("Order archival stopped: failed to write segment", e);
+                break;
+            }
+            archived += batch.size();
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} orders placed before {}", archived, cutoff);
+        }
+
+        try {
+            compactSegments();
+        } catch (IOException e) {
+            log.error("Order archive compaction failed", e);
+        }
+    }
+
+    /**
+     * Find an archived order by ID
+     */
+    public Optional<OrderResponse> findById(Long id) {
+        for (SegmentIndex segment : segments) {
+            if (id < segment.getMinOrderId() || id > segment.getMaxOrderId()) {
+                continue;
+            }
+            for (BlockIndex block : segment.getBlocks()) {
+                if (id < block.getMinOrderId() || id > block.getMaxOrderId()) {
+                    continue;
+                }
+                Optional<OrderResponse> match = readBlock(segment, block).stream()
+                        .filter(order -> id.equals(order.getId()))
+                        .findFirst();
+                if (match.isPresent()) {
+                    return match;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Find an archived order by order number
+     */
+    public Optional<OrderResponse> findByOrderNumber(String orderNumber) {
+        for (SegmentIndex segment : segments) {
+            if (orderNumber.compareTo(segment.getMinOrderNumber()) < 0
+                    || orderNumber.compareTo(segment.getMaxOrderNumber()) > 0) {
+                continue;
+            }
+            BlockIndex block = findBlock(segment.getBlocks(), orderNumber);
+            Optional<OrderResponse> match = readBlock(segment, block).stream()
+                    .filter(order -> orderNumber.equals(order.getOrderNumber()))
+                    .findFirst();
+            if (match.isPresent()) {
+                return match;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Merge runs of consecutive small segments into segments of up to
+     * {@code archive.orders.segment-max-orders} orders
+     */
+    void compactSegments() throws IOException {
+        List<SegmentIndex> ordered = segments.stream().sorted(Comparator.comparing(SegmentIndex::getName)).toList();
+        List<SegmentIndex> group = new ArrayList<>();
+        int groupOrders = 0;
+        int compacted = 0;
+        for (SegmentIndex segment : ordered) {
+            if (groupOrders + segment.getOrderCount() > segmentMaxOrders) {
+                compacted += mergeSegments(group);
+                group.clear();
+                groupOrders = 0;
+            }
+            group.add(segment);
+            groupOrders += segment.getOrderCount();
+        }
+        compacted += mergeSegments(group);
+
+        if (compacted > 0) {
+            log.info("Compacted {} order archive segments; {} remain", compacted, segments.size());
+        }
+    }
+
+    private int mergeSegments(List<SegmentIndex> group) throws IOException {
+        if (group.size() < 2) {
+            return 0;
+        }
+        // Keyed by ID so an order left in two segments by an interrupted run is kept once
+        Map<Long, OrderResponse> orders = new HashMap<>();
+        for (SegmentIndex segment : group) {
+            for (BlockIndex block : segment.getBlocks()) {
+                readBlock(segment, block).forEach(order -> orders.putIfAbsent(order.getId(), order));
+            }
+        }
+
+        SegmentIndex merged = writeSegment(orders.values().stream()
+                .sorted(Comparator.comparing(OrderResponse::getOrderNumber))
+                .toList());
+        segments.add(merged);
+        segments.removeAll(group);
+
+        Path directory = Path.of(archiveDirectory);
+        for (SegmentIndex segment : group) {
+            // The index goes first so a crash never leaves an index pointing at a missing segment
+            Files.deleteIfExists(directory.resolve(segment.getName() + INDEX_SUFFIX));
+            Files.deleteIfExists(directory.resolve(segment.getName() + SEGMENT_SUFFIX));
+        }
+        return group.size();
+    }
+
+    private void archiveBatch(List<OrderReadModel> batch) throws IOException {
+        List<Long> ids = batch.stream().map(OrderReadModel::getId).toList();
+
+        // Orders already written by a run whose delete failed are only deleted this time
+        Set<Long> alreadyArchived = findArchivedIds(ids);
+        List<OrderResponse> orders = batch.stream()
+                .filter(view -> !alreadyArchived.contains(view.getId()))
+                .map(orderReadModelService::toOrderResponse)
+                .sorted(Comparator.comparing(OrderResponse::getOrderNumber))
+                .toList();
+
+        SegmentIndex segment = orders.isEmpty() ? null : writeSegment(orders);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            orderItemRepository.deleteByOrderIdIn(ids);
+            orderRepository.deleteByIdIn(ids);
+            orderReadModelRepository.deleteByIdIn(ids);
+        });
+
+        if (segment != null) {
+            segments.add(segment);
+            log.debug("Wrote archive segment {} with {} orders", segment.getName(), orders.size());
+        }
+    }
+
+    private Set<Long> findArchivedIds(Collection<Long> ids) {
+        NavigableSet<Long> candidates = new TreeSet<>(ids);
+        Set<Long> archived = new HashSet<>();
+        for (SegmentIndex segment : segments) {
+            if (candidates.subSet(segment.getMinOrderId(), true, segment.getMaxOrderId(), true).isEmpty()) {
+                continue;
+            }
+            for (BlockIndex block : segment.getBlocks()) {
+                if (candidates.subSet(block.getMinOrderId(), true, block.getMaxOrderId(), true).isEmpty()) {
+                    continue;
+                }
+                readBlock(segment, block).stream()
+                        .map(OrderResponse::getId)
+                        .filter(candidates::contains)
+                        .forEach(archived::add);
+            }
+        }
+        return archived;
+    }
+
+    private SegmentIndex writeSegment(List<OrderResponse> orders) throws IOException {
+        Path directory = Path.of(archiveDirectory);
+        String name = String.format("segment-%013d-%010d", System.currentTimeMillis(), orders.get(0).getId());
+        Path segmentFile = directory.resolve(name + SEGMENT_SUFFIX);
+        Path indexFile = directory.resolve(name + INDEX_SUFFIX);
+        Path tempSegment = directory.resolve(name + SEGMENT_SUFFIX + ".tmp");
+        Path tempIndex = directory.resolve(name + INDEX_SUFFIX + ".tmp");
+
+        SegmentIndex segment = new SegmentIndex();
+        segment.setName(name);
+        segment.setMinOrderNumber(orders.get(0).getOrderNumber());
+        segment.setMaxOrderNumber(orders.get(orders.size() - 1).getOrderNumber());
+        segment.setMinOrderId(orders.stream().mapToLong(OrderResponse::getId).min().orElseThrow());
+        segment.setMaxOrderId(orders.stream().mapToLong(OrderResponse::getId).max().orElseThrow());
+        segment.setOrderCount(orders.size());
+
+        long offset = 0;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempSegment))) {
+            for (int start = 0; start < orders.size(); start += ORDERS_PER_BLOCK) {
+                List<OrderResponse> blockOrders = orders.subList(start, Math.min(start + ORDERS_PER_BLOCK, orders.size()));
+                byte[] block = compressBlock(blockOrders);
+                out.write(block);
+
+                segment.getBlocks().add(new BlockIndex(
+                        blockOrders.get(0).getOrderNumber(),
+                        blockOrders.stream().mapToLong(OrderResponse::getId).min().orElseThrow(),
+                        blockOrders.stream().mapToLong(OrderResponse::getId).max().orElseThrow(),
+                        offset,
+                        block.length));
+                offset += block.length;
+            }
+        }
+        objectMapper.writeValue(tempIndex.toFile(), segment);
+
+        // The index file is moved last: a segment only becomes visible once both files are complete
+        Files.move(tempSegment, segmentFile, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(tempIndex, indexFile, StandardCopyOption.ATOMIC_MOVE);
+        return segment;
+    }
+
+    private byte[] compressBlock(List<OrderResponse> orders) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8)) {
+            for (OrderResponse order : orders) {
+                writer.write(objectMapper.writeValueAsString(order));
+                writer.write('\n');
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<OrderResponse> readBlock(SegmentIndex segment, BlockIndex block) {
+        Path segmentFile = Path.of(archiveDirectory).resolve(segment.getName() + SEGMENT_SUFFIX);
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile.toFile(), "r")) {
+            byte[] compressed = new byte[block.getLength()];
+            file.seek(block.getOffset());
+            file.readFully(compressed);
+
+            List<OrderResponse> orders = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(compressed)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    orders.add(objectMapper.readValue(line, OrderResponse.class));
+                }
+            }
+            return orders;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive segment " + segment.getName(), e);
+        }
+    }
+
+    private static BlockIndex findBlock(List<BlockIndex> blocks, String orderNumber) {
+        int low = 0;
+        int high = blocks.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (blocks.get(mid).getFirstOrderNumber().compareTo(orderNumber) <= 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return blocks.get(low);
+    }
+
+    /**
+     * Sparse index of one archive segment
+     */
+    @Data
+    @NoArgsConstructor
+    public static class SegmentIndex {
+        private String name;
+        private String minOrderNumber;
+        private String maxOrderNumber;
+        private long minOrderId;
+        private long maxOrderId;
+        private int orderCount;
+        private List<BlockIndex> blocks = new ArrayList<>();
+    }
+
+    /**
+     * Location and bounds of one compressed block within a segment
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BlockIndex {
+        private String firstOrderNumber;
+        private long minOrderId;
+        private long maxOrderId;
+        private long offset;
+        private int length;
+    }
+}
@@ -0,0 +1,150 @@
+package com.ims.inventoryms.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Maintains monthly RANGE COLUMNS partitions on orders and order_items.
+ * The tables are converted once with db/partition-orders.sql; this service then
+ * splits upcoming months out of the pmax partition and drops empty partitions
+ * that fall outside the retention window. Whether or not partitioning is enabled,
+ * order_items rows written before order_date was copied onto them are backfilled at startup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPartitionService {
+
+    private static final List<String> PARTITIONED_TABLES = List.of("orders", "order_items");
+    private static final String CATCH_ALL_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final long BACKFILL_ID_RANGE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${orders.partitioning.enabled}")
+    private boolean enabled;
+
+    @Value("${orders.partitioning.months-ahead}")
+    private int monthsAhead;
+
+    @Value("${orders.partitioning.retention-months}")
+    private int retentionMonths;
+
+    /**
+     * Backfill order_items.order_date and make sure upcoming partitions exist as soon as the
+     * application starts. Runs first so readers that filter on order_items.order_date see history.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onStartup() {
+        backfillOrderItemDates();
+        maintainPartitions();
+    }
+
+    /**
+     * Copy order_date from the parent order onto order_items rows that predate the column.
+     * Idempotent, and walks the ID space in ranges to keep each update's locks short.
+     */
+    public void backfillOrderItemDates() {
+        Long minId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM order_items WHERE order_date IS NULL", Long.class);
+        if (minId == null) {
+            return;
+        }
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM order_items WHERE order_date IS NULL", Long.class);
+
+        int updated = 0;
+        for (long start = minId; start <= maxId; start += BACKFILL_ID_RANGE) {
+            updated += jdbcTemplate.update(
+                    "UPDATE order_items oi JOIN orders o ON o.id = oi.order_id " +
+                    "SET oi.order_date = o.order_date " +
+                    "WHERE oi.order_date IS NULL AND oi.id BETWEEN ? AND ?",
+                    start, start + BACKFILL_ID_RANGE - 1);
+        }
+        log.info("Backfilled order_date on {} order items", updated);
+    }
+
+    /**
+     * Create upcoming monthly partitions and apply retention
+     */
+    @Scheduled(cron = "${orders.partitioning.cron}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+
+        for (String table : PARTITIONED_TABLES) {
+            List<String> partitions = findPartitions(table);
+            if (!partitions.contains(CATCH_ALL_PARTITION)) {
+                log.warn("Table {} is not partitioned by month; apply db/partition-orders.sql first", table);
+                continue;
+            }
+            createUpcomingPartitions(table, partitions);
+            if (retentionMonths > 0) {
+                dropExpiredPartitions(table, partitions);
+            }
+        }
+    }
+
+    private void createUpcomingPartitions(String table, List<String> partitions) {
+        String lastMonthly = partitions.stream()
+                .filter(name -> !name.equals(CATCH_ALL_PARTITION))
+                .max(String::compareTo)
+                .orElse("");
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = month.format(PARTITION_NAME);
+            // Partitions can only be split off the end of the range
+            if (name.compareTo(lastMonthly) <= 0) {
+                continue;
+            }
+            LocalDate upperBound = month.plusMonths(1).atDay(1);
+            jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + CATCH_ALL_PARTITION + " INTO (" +
+                    "PARTITION " + name + " VALUES LESS THAN ('" + upperBound + "'), " +
+                    "PARTITION " + CATCH_ALL_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+            log.info("Created partition {} on {}", name, table);
+        }
+    }
+
+    private void dropExpiredPartitions(String table, List<String> partitions) {
+        String oldestRetained = YearMonth.now().minusMonths(retentionMonths).format(PARTITION_NAME);
+        for (String name : partitions) {
+            if (name.equals(CATCH_ALL_PARTITION) || name.compareTo(oldestRetained) >= 0) {
+                continue;
+            }
+            // Only empty partitions are dropped; old orders leave the hot tables through the archive job
+            Long rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + table + " PARTITION (" + name + ")", Long.class);
+            if (rows != null && rows == 0) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + name);
+                log.info("Dropped expired partition {} on {}", name, table);
+            } else {
+                log.warn("Partition {} on {} is past retention but still holds {} rows", name, table, rows);
+            }
+        }
+    }
+
+    private List<String> findPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, table);
+    }
+}
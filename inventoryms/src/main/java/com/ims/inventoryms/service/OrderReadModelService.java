@@ -0,0 +1,244 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.dto.OrderResponse;
+import com.ims.inventoryms.entity.Order;
+import com.ims.inventoryms.entity.OrderItem;
+import com.ims.inventoryms.entity.OrderReadModel;
+import com.ims.inventoryms.repository.OrderReadModelRepository;
+import com.ims.inventoryms.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Service that keeps the denormalized order read model in sync with orders.
+ * Customer name search goes through an ngram FULLTEXT index on the read model,
+ * so it sees every node's writes and pages over the full result.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class OrderReadModelService {
+
+    private static final int BACKFILL_BATCH_SIZE = 200;
+    private static final String NAME_SEARCH_INDEX = "idx_orm_customer_name_ft";
+
+    private final OrderReadModelRepository orderReadModelRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    // ngram size of the name search index, or 0 while the index is not available
+    private volatile int nameSearchTokenSize;
+
+    /**
+     * Create or replace the read model row for an order.
+     * Called from the same transaction that writes the order.
+     */
+    public OrderReadModel refresh(Order order) {
+        OrderReadModel view = orderReadModelRepository.findById(order.getId()).orElseGet(OrderReadModel::new);
+        view.setId(order.getId());
+        view.setOrderNumber(order.getOrderNumber());
+        view.setUserId(order.getUser() != null ? order.getUser().getId() : null);
+        view.setCustomerName(order.getCustomerName());
+        view.setCustomerEmail(order.getCustomerEmail());
+        view.setCustomerPhone(order.getCustomerPhone());
+        view.setCustomerEmailKey(Order.normalizeEmail(order.getCustomerEmail()));
+        view.setCustomerPhoneKey(Order.normalizePhone(order.getCustomerPhone()));
+        view.setShippingAddress(order.getShippingAddress());
+        view.setOrderStatus(order.getOrderStatus());
+        view.setPaymentStatus(order.getPaymentStatus());
+        view.setPaymentMethod(order.getPaymentMethod());
+        view.setSubtotal(order.getSubtotal());
+        view.setTaxAmount(order.getTaxAmount());
+        view.setDiscountAmount(order.getDiscountAmount());
+        view.setTotalAmount(order.getTotalAmount());
+        view.setNotes(order.getNotes());
+        view.setOrderDate(order.getOrderDate());
+        view.setShippedDate(order.getShippedDate());
+        view.setDeliveredDate(order.getDeliveredDate());
+        view.setCreatedAt(order.getCreatedAt());
+        view.setUpdatedAt(order.getUpdatedAt());
+        view.setLineItems(order.getOrderItems().stream().map(this::toLineSnapshot).toList());
+        return orderReadModelRepository.save(view);
+    }
+
+    /**
+     * Project orders created before the read model existed.
+     * Each batch commits in its own transaction so the persistence context stays small.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillMissing() {
+        Integer keyed = transactionTemplate.execute(status -> orderRepository.backfillLookupKeys());
+        if (keyed != null && keyed > 0) {
+            log.info("Order lookup keys backfilled for {} orders", keyed);
+        }
+        
+        int projected = 0;
+        long lastId = 0L;
+        while (true) {
+            long afterId = lastId;
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> batch = orderReadModelRepository.findOrderIdsMissingReadModel(
+                        afterId, PageRequest.of(0, BACKFILL_BATCH_SIZE));
+                orderRepository.findAllById(batch).forEach(this::refresh);
+                return batch;
+            });
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
+            projected += ids.size();
+        }
+        if (projected > 0) {
+            log.info("Order read model backfilled for {} orders", projected);
+        }
+    }
+
+    /**
+     * Create the ngram FULLTEXT index behind customer name search if it is missing.
+     * Stopwords are turned off for the build, since the ngram parser drops every token containing one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void ensureNameSearchIndex() {
+        try {
+            if (!hasNameSearchIndex()) {
+                log.info("Creating customer name search index {} on order_read_model", NAME_SEARCH_INDEX);
+                try {
+                    jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SET SESSION innodb_ft_enable_stopword = OFF");
+                            try {
+                                statement.execute("ALTER TABLE order_read_model ADD FULLTEXT INDEX " +
+                                        NAME_SEARCH_INDEX + " (customer_name) WITH PARSER ngram");
+                            } finally {
+                                statement.execute("SET SESSION innodb_ft_enable_stopword = DEFAULT");
+                            }
+                        }
+                        return null;
+                    });
+                } catch (DataAccessException e) {
+                    // Another node may have created it first
+                    if (!hasNameSearchIndex()) {
+                        throw e;
+                    }
+                }
+            }
+            nameSearchTokenSize = jdbcTemplate.queryForObject("SELECT @@ngram_token_size", Integer.class);
+        } catch (DataAccessException e) {
+            log.warn("Customer name search index is unavailable, name search will scan: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Find order views whose customer name contains the term, newest first.
+     * Words shorter than the ngram size cannot use the index; a term made only of those scans.
+     */
+    @Transactional(readOnly = true)
+    public Page<OrderReadModel> searchByCustomerName(String term, Pageable pageable) {
+        Pageable newestFirst = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        String words = toNameSearchQuery(term);
+        if (words.isEmpty()) {
+            return orderReadModelRepository.searchByCustomerName(term, newestFirst);
+        }
+        return orderReadModelRepository.searchByCustomerNameFullText(words, term, newestFirst);
+    }
+
+    /**
+     * Map OrderReadModel to OrderResponse DTO
+     */
+    public OrderResponse toOrderResponse(OrderReadModel view) {
+        return OrderResponse.builder()
+                .id(view.getId())
+                .orderNumber(view.getOrderNumber())
+                .customerName(view.getCustomerName())
+                .customerEmail(view.getCustomerEmail())
+                .customerPhone(view.getCustomerPhone())
+                .shippingAddress(view.getShippingAddress())
+                .orderStatus(view.getOrderStatus())
+                .paymentStatus(view.getPaymentStatus())
+                .paymentMethod(view.getPaymentMethod())
+                .subtotal(view.getSubtotal())
+                .taxAmount(view.getTaxAmount())
+                .discountAmount(view.getDiscountAmount())
+                .totalAmount(view.getTotalAmount())
+                .notes(view.getNotes())
+                .orderDate(view.getOrderDate())
+                .shippedDate(view.getShippedDate())
+                .deliveredDate(view.getDeliveredDate())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .orderItems(view.getLineItems().stream().map(this::toOrderItemResponse).toList())
+                .build();
+    }
+
+    /**
+     * Boolean-mode query requiring every indexable word of the term as an ngram phrase
+     */
+    private String toNameSearchQuery(String term) {
+        int tokenSize = nameSearchTokenSize;
+        StringJoiner query = new StringJoiner(" ");
+        if (tokenSize > 0) {
+            for (String word : term.replace('"', ' ').trim().split("\\s+")) {
+                if (word.length() >= tokenSize) {
+                    query.add("+\"" + word + "\"");
+                }
+            }
+        }
+        return query.toString();
+    }
+
+    private boolean hasNameSearchIndex() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'order_read_model' AND INDEX_NAME = ?",
+                Integer.class, NAME_SEARCH_INDEX);
+        return count != null && count > 0;
+    }
+
+    private OrderReadModel.LineSnapshot toLineSnapshot(OrderItem orderItem) {
+        return new OrderReadModel.LineSnapshot(
+                orderItem.getId(),
+                orderItem.getProduct().getId(),
+                orderItem.getProduct().getName(),
+                orderItem.getQuantity(),
+                orderItem.getPrice(),
+                orderItem.getDiscountAmount(),
+                orderItem.getNotes());
+    }
+
+    private OrderResponse.OrderItemResponse toOrderItemResponse(OrderReadModel.LineSnapshot line) {
+        BigDecimal subtotal = line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity()));
+        BigDecimal discount = line.getDiscountAmount() != null ? line.getDiscountAmount() : BigDecimal.ZERO;
+        return OrderResponse.OrderItemResponse.builder()
+                .id(line.getId())
+                .productId(line.getProductId())
+                .productName(line.getProductName())
+                .quantity(line.getQuantity())
+                .price(line.getPrice())
+                .discountAmount(line.getDiscountAmount())
+                .subtotal(subtotal)
+                .totalAmount(subtotal.subtract(discount))
+                .notes(line.getNotes())
+                .build();
+    }
+}
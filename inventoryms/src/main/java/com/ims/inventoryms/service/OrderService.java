@@ -3,10 +3,13 @@ package com.ims.inventoryms.service;
 import com.ims.inventoryms.dto.OrderRequest;
 import com.ims.inventoryms.dto.OrderResponse;
 import com.ims.inventoryms.entity.*;
+import com.ims.inventoryms.event.OrderChangedEvent;
+import com.ims.inventoryms.repository.OrderReadModelRepository;
 import com.ims.inventoryms.repository.OrderRepository;
 import com.ims.inventoryms.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -15,7 +18,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 /**
  * Service class for order management operations
@@ -26,7 +31,15 @@ import java.util.UUID;
 @Transactional
 public class OrderService {
     
+    private static final String ORDER_NUMBER_PREFIX = "ORD-";
+    private static final int MIN_PHONE_SEARCH_DIGITS = 7;
+    private static final Pattern PHONE_PATTERN = Pattern.compile("[0-9+()\\-.\\s]+");
+    
     private final OrderRepository orderRepository;
+    private final OrderReadModelRepository orderReadModelRepository;
+    private final OrderReadModelService orderReadModelService;
+    private final OrderArchiveService orderArchiveService;
+    private final ApplicationEventPublisher eventPublisher;
     private final ProductRepository productRepository;
     private final AuthService authService;
     
@@ -35,8 +48,8 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public Page<OrderResponse> getAllOrders(Pageable pageable) {
-        Page<Order> orders = orderRepository.findAll(pageable);
-        return orders.map(this::mapToOrderResponse);
+        Page<OrderReadModel> orders = orderReadModelRepository.findAll(pageable);
+        return orders.map(orderReadModelService::toOrderResponse);
     }
     
     /**
@@ -44,9 +57,21 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
+        return orderRepository.findWithItemsById(id)
+                .map(this::mapToOrderResponse)
+                .or(() -> orderArchiveService.findById(id))
                 .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + id));
-        return mapToOrderResponse(order);
+    }
+    
+    /**
+     * Get order by order number
+     */
+    @Transactional(readOnly = true)
+    public OrderResponse getOrderByNumber(String orderNumber) {
+        return orderRepository.findByOrderNumber(orderNumber)
+                .map(this::mapToOrderResponse)
+                .or(() -> orderArchiveService.findByOrderNumber(orderNumber))
+                .orElseThrow(() -> new IllegalArgumentException("Order not found with number: " + orderNumber));
     }
     
     /**
@@ -109,6 +134,8 @@ public class OrderService {
         order.calculateTotals();
         
         Order savedOrder = orderRepository.save(order);
+        orderReadModelService.refresh(savedOrder);
+        eventPublisher.publishEvent(OrderChangedEvent.of(OrderChangedEvent.Type.CREATED, savedOrder, null, null));
         
         log.info("Order created successfully: {}", savedOrder.getOrderNumber());
         
@@ -120,9 +147,12 @@ public class OrderService {
      */
     public OrderResponse updateOrderStatus(Long id, Order.OrderStatus orderStatus, 
                                           Order.PaymentStatus paymentStatus, String notes) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + id));
         
+        Order.OrderStatus previousOrderStatus = order.getOrderStatus();
+        Order.PaymentStatus previousPaymentStatus = order.getPaymentStatus();
+        
         order.setOrderStatus(orderStatus);
         order.setPaymentStatus(paymentStatus);
         if (notes != null && !notes.trim().isEmpty()) {
@@ -136,7 +166,10 @@ public class OrderService {
             order.setDeliveredDate(LocalDateTime.now());
         }
         
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        orderReadModelService.refresh(savedOrder);
+        eventPublisher.publishEvent(OrderChangedEvent.of(OrderChangedEvent.Type.STATUS_CHANGED, savedOrder,
+                previousOrderStatus, previousPaymentStatus));
         
         log.info("Order status updated to {} for order: {}", orderStatus, savedOrder.getOrderNumber());
         
@@ -147,7 +180,7 @@ public class OrderService {
      * Cancel order
      */
     public OrderResponse cancelOrder(Long id, String reason) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + id));
         
         if (order.getOrderStatus() == Order.OrderStatus.CANCELLED) {
@@ -158,6 +191,9 @@ public class OrderService {
             throw new IllegalArgumentException("Cannot cancel a delivered order");
         }
         
+        Order.OrderStatus previousOrderStatus = order.getOrderStatus();
+        Order.PaymentStatus previousPaymentStatus = order.getPaymentStatus();
+        
         // Restore stock for cancelled order
         for (OrderItem orderItem : order.getOrderItems()) {
             Product product = orderItem.getProduct();
@@ -170,7 +206,10 @@ public class OrderService {
             order.setNotes(order.getNotes() + "\nCancellation reason: " + reason);
         }
         
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        orderReadModelService.refresh(savedOrder);
+        eventPublisher.publishEvent(OrderChangedEvent.of(OrderChangedEvent.Type.CANCELLED, savedOrder,
+                previousOrderStatus, previousPaymentStatus));
         
         log.info("Order cancelled: {}", savedOrder.getOrderNumber());
         
@@ -182,8 +221,21 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public Page<OrderResponse> searchOrders(String search, Pageable pageable) {
-        Page<Order> orders = orderRepository.searchOrders(search, pageable);
-        return orders.map(this::mapToOrderResponse);
+        String term = search.trim();
+        String phoneKey = Order.normalizePhone(term);
+        Page<OrderReadModel> orders;
+        
+        if (term.contains("@")) {
+            orders = orderReadModelRepository.findByCustomerEmailKey(Order.normalizeEmail(term), pageable);
+        } else if (term.toUpperCase(Locale.ROOT).startsWith(ORDER_NUMBER_PREFIX)) {
+            orders = orderReadModelRepository.findByOrderNumberPrefix(term.toUpperCase(Locale.ROOT), pageable);
+        } else if (phoneKey != null && phoneKey.length() >= MIN_PHONE_SEARCH_DIGITS && PHONE_PATTERN.matcher(term).matches()) {
+            orders = orderReadModelRepository.findByCustomerPhoneKey(phoneKey, pageable);
+        } else {
+            orders = orderReadModelService.searchByCustomerName(term, pageable);
+        }
+        
+        return orders.map(orderReadModelService::toOrderResponse);
     }
     
     /**
@@ -191,8 +243,8 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public Page<OrderResponse> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByOrderDateBetween(startDate, endDate, pageable);
-        return orders.map(this::mapToOrderResponse);
+        Page<OrderReadModel> orders = orderReadModelRepository.findByOrderDateBetween(startDate, endDate, pageable);
+        return orders.map(orderReadModelService::toOrderResponse);
     }
     
     /**
@@ -200,8 +252,8 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public Page<OrderResponse> getOrdersByStatus(Order.OrderStatus status, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByOrderStatus(status, pageable);
-        return orders.map(this::mapToOrderResponse);
+        Page<OrderReadModel> orders = orderReadModelRepository.findByOrderStatus(status, pageable);
+        return orders.map(orderReadModelService::toOrderResponse);
     }
     
     /**
@@ -209,15 +261,15 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public List<OrderResponse> getRecentOrders(Pageable pageable) {
-        List<Order> orders = orderRepository.findRecentOrders(pageable);
-        return orders.stream().map(this::mapToOrderResponse).toList();
+        List<OrderReadModel> orders = orderReadModelRepository.findRecentOrders(pageable);
+        return orders.stream().map(orderReadModelService::toOrderResponse).toList();
     }
     
     /**
      * Generate unique order number
      */
     private String generateOrderNumber() {
-        return "ORD-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return ORDER_NUMBER_PREFIX + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase(Locale.ROOT);
     }
     
     /**
@@ -0,0 +1,224 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.entity.Product;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Batch ABC (revenue contribution) and velocity classification of the catalog.
+ * <p>
+ * The product ID space is split into chunks that are aggregated in parallel on a
+ * fork-join pool, each chunk reading its products and their order item totals over the
+ * classification window with one grouped query. Revenue thresholds for the A and B
+ * classes are then derived from the whole catalog, and the chunks write their classes
+ * back with JDBC batch updates, again in parallel.
+ */
+@Service
+@Slf4j
+public class ProductClassificationService {
+    
+    private static final long CHUNK_SIZE = 5000;
+    
+    private static final String AGGREGATE_CHUNK_SQL =
+            "SELECT p.id, COALESCE(SUM(oi.quantity * oi.price), 0), COALESCE(SUM(oi.quantity), 0) " +
+            "FROM products p LEFT JOIN (order_items oi JOIN orders o ON o.id = oi.order_id AND o.order_status <> 'CANCELLED') " +
+            "ON oi.product_id = p.id AND oi.order_date >= ? " +
+            "WHERE p.id BETWEEN ? AND ? GROUP BY p.id";
+    private static final String UPDATE_CLASS_SQL =
+            "UPDATE products SET abc_class = ?, velocity_class = ?, classified_at = ? WHERE id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    @Value("${products.classification.window-days}")
+    private int windowDays;
+    
+    @Value("${products.classification.a-revenue-share}")
+    private double aRevenueShare;
+    
+    @Value("${products.classification.b-revenue-share}")
+    private double bRevenueShare;
+    
+    @Value("${products.classification.fast-units-per-day}")
+    private double fastUnitsPerDay;
+    
+    public ProductClassificationService(JdbcTemplate jdbcTemplate,
+                                        @Value("${products.classification.parallelism}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+    
+    /**
+     * Classify every product and write the classes onto the products table
+     */
+    @Scheduled(cron = "${products.classification.cron}")
+    public void classifyProducts() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Product classification is already running");
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            Long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM products", Long.class);
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+            if (minId == null || maxId == null) {
+                return;
+            }
+            
+            LocalDateTime since = LocalDate.now().minusDays(windowDays).atStartOfDay();
+            Map<Long, Chunk> chunks = new ConcurrentHashMap<>();
+            pool.invoke(new ChunkTask(minId, maxId, (from, to) -> chunks.put(from, aggregate(from, to, since))));
+            
+            long[] thresholds = revenueThresholds(chunks.values());
+            LocalDateTime classifiedAt = LocalDateTime.now();
+            pool.submit(() -> chunks.values().parallelStream()
+                    .forEach(chunk -> write(chunk, thresholds[0], thresholds[1], classifiedAt))).join();
+            
+            int products = chunks.values().stream().mapToInt(chunk -> chunk.ids.length).sum();
+            log.info("Classified {} products in {} ms", products, System.currentTimeMillis() - started);
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    private Chunk aggregate(long fromId, long toId, LocalDateTime since) {
+        List<long[]> rows = new ArrayList<>();
+        jdbcTemplate.query(AGGREGATE_CHUNK_SQL, rs -> {
+            rows.add(new long[] {
+                    rs.getLong(1),
+                    rs.getBigDecimal(2).movePointRight(2).longValue(),
+                    rs.getLong(3)
+            });
+        }, Timestamp.valueOf(since), fromId, toId);
+        
+        Chunk chunk = new Chunk(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            chunk.ids[i] = rows.get(i)[0];
+            chunk.revenueCents[i] = rows.get(i)[1];
+            chunk.units[i] = rows.get(i)[2];
+        }
+        return chunk;
+    }
+    
+    /**
+     * Smallest revenue that still falls in class A and in class B.
+     * Products are ranked by revenue; A covers the top products up to the A share of total revenue.
+     */
+    private long[] revenueThresholds(Iterable<Chunk> chunks) {
+        int count = 0;
+        for (Chunk chunk : chunks) {
+            count += chunk.ids.length;
+        }
+        long[] revenues = new long[count];
+        int position = 0;
+        long total = 0;
+        for (Chunk chunk : chunks) {
+            System.arraycopy(chunk.revenueCents, 0, revenues, position, chunk.revenueCents.length);
+            position += chunk.revenueCents.length;
+            for (long revenue : chunk.revenueCents) {
+                total += revenue;
+            }
+        }
+        Arrays.parallelSort(revenues);
+        
+        long thresholdA = Long.MAX_VALUE;
+        long thresholdB = Long.MAX_VALUE;
+        long cumulative = 0;
+        for (int i = revenues.length - 1; i >= 0 && revenues[i] > 0; i--) {
+            double shareBefore = total > 0 ? (double) cumulative / total : 1;
+            if (shareBefore < aRevenueShare) {
+                thresholdA = revenues[i];
+            }
+            if (shareBefore < bRevenueShare) {
+                thresholdB = revenues[i];
+            }
+            cumulative += revenues[i];
+        }
+        return new long[] {thresholdA, thresholdB};
+    }
+    
+    private void write(Chunk chunk, long thresholdA, long thresholdB, LocalDateTime classifiedAt) {
+        Timestamp timestamp = Timestamp.valueOf(classifiedAt);
+        List<Object[]> updates = new ArrayList<>(chunk.ids.length);
+        for (int i = 0; i < chunk.ids.length; i++) {
+            long revenue = chunk.revenueCents[i];
+            Product.AbcClass abcClass = revenue > 0 && revenue >= thresholdA ? Product.AbcClass.A
+                    : revenue > 0 && revenue >= thresholdB ? Product.AbcClass.B
+                    : Product.AbcClass.C;
+            double unitsPerDay = (double) chunk.units[i] / windowDays;
+            Product.VelocityClass velocityClass = chunk.units[i] == 0 ? Product.VelocityClass.DEAD
+                    : unitsPerDay >= fastUnitsPerDay ? Product.VelocityClass.FAST
+                    : Product.VelocityClass.SLOW;
+            updates.add(new Object[] {abcClass.name(), velocityClass.name(), timestamp, chunk.ids[i]});
+        }
+        jdbcTemplate.batchUpdate(UPDATE_CLASS_SQL, updates);
+    }
+    
+    /**
+     * Products of one ID range with their revenue (cents) and units in the window
+     */
+    private static class Chunk {
+        private final long[] ids;
+        private final long[] revenueCents;
+        private final long[] units;
+        
+        Chunk(int size) {
+            ids = new long[size];
+            revenueCents = new long[size];
+            units = new long[size];
+        }
+    }
+    
+    /**
+     * Splits an ID range in halves until it is at most one chunk, then runs the action on it
+     */
+    private static class ChunkTask extends RecursiveAction {
+        
+        private final long fromId;
+        private final long toId;
+        private final ChunkAction action;
+        
+        ChunkTask(long fromId, long toId, ChunkAction action) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.action = action;
+        }
+        
+        @Override
+        protected void compute() {
+            if (toId - fromId < CHUNK_SIZE) {
+                action.run(fromId, toId);
+                return;
+            }
+            long middle = fromId + (toId - fromId) / 2;
+            invokeAll(new ChunkTask(fromId, middle, action), new ChunkTask(middle + 1, toId, action));
+        }
+    }
+    
+    @FunctionalInterface
+    private interface ChunkAction {
+        void run(long fromId, long toId);
+    }
+}
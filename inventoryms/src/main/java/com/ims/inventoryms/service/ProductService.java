@@ -16,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Service class for product management operations
@@ -28,6 +29,7 @@ public class ProductService {
     
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryTreeService categoryTreeService;
     
     /**
      * Get all active products with pagination
@@ -94,6 +96,7 @@ public class ProductService {
         }
         
         Product savedProduct = productRepository.save(product);
+        moveCategoryCount(null, countedCategoryId(savedProduct));
         
         log.info("Product created successfully: {}", savedProduct.getName());
         
@@ -106,6 +109,7 @@ public class ProductService {
     public Product updateProduct(Long id, Product product) {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + id));
+        Long previousCountedCategoryId = countedCategoryId(existingProduct);
         
         // Check if SKU already exists (excluding current product)
         if (product.getSku() != null && !product.getSku().trim().isEmpty() && 
@@ -158,6 +162,7 @@ public class ProductService {
         existingProduct.setIsActive(product.getIsActive());
         
         Product savedProduct = productRepository.save(existingProduct);
+        moveCategoryCount(previousCountedCategoryId, countedCategoryId(savedProduct));
         
         log.info("Product updated successfully: {}", savedProduct.getName());
         
@@ -172,6 +177,7 @@ public class ProductService {
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + id));
         
         productRepository.delete(product);
+        moveCategoryCount(countedCategoryId(product), null);
         
         log.info("Product deleted successfully: {}", product.getName());
     }
@@ -263,8 +269,10 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + id));
         
+        Long previousCountedCategoryId = countedCategoryId(product);
         product.setIsActive(!product.getIsActive());
         Product savedProduct = productRepository.save(product);
+        moveCategoryCount(previousCountedCategoryId, countedCategoryId(savedProduct));
         
         log.info("Product status toggled to {} for product: {}", savedProduct.getIsActive(), savedProduct.getName());
         
@@ -275,8 +283,11 @@ public class ProductService {
      * Get all products (DTO-based)
      */
     @Transactional(readOnly = true)
-    public Page<ProductResponse> getAllProducts(Pageable pageable) {
-        Page<Product> products = productRepository.findActiveProducts(pageable);
+    public Page<ProductResponse> getAllProducts(Product.AbcClass abcClass, Product.VelocityClass velocityClass,
+                                                Pageable pageable) {
+        Page<Product> products = abcClass == null && velocityClass == null
+                ? productRepository.findActiveProducts(pageable)
+                : productRepository.findActiveProductsByClass(abcClass, velocityClass, pageable);
         return products.map(this::mapToProductResponse);
     }
     
@@ -327,6 +338,7 @@ public class ProductService {
         product.setIsActive(productRequest.getIsActive());
         
         Product savedProduct = productRepository.save(product);
+        moveCategoryCount(null, countedCategoryId(savedProduct));
         
         log.info("Product created successfully: {}", savedProduct.getName());
         
@@ -339,6 +351,7 @@ public class ProductService {
     public ProductResponse updateProduct(Long id, ProductRequest productRequest) {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + id));
+        Long previousCountedCategoryId = countedCategoryId(existingProduct);
         
         // Check if SKU already exists (excluding current product)
         if (productRequest.getSku() != null && !productRequest.getSku().trim().isEmpty() && 
@@ -374,6 +387,7 @@ public class ProductService {
         existingProduct.setIsActive(productRequest.getIsActive());
         
         Product savedProduct = productRepository.save(existingProduct);
+        moveCategoryCount(previousCountedCategoryId, countedCategoryId(savedProduct));
         
         log.info("Product updated successfully: {}", savedProduct.getName());
         
@@ -422,11 +436,16 @@ public class ProductService {
      * Search products (DTO-based)
      */
     @Transactional(readOnly = true)
-    public Page<ProductResponse> searchProducts(String query, Long categoryId, BigDecimal minPrice, 
-                                               BigDecimal maxPrice, String brand, String supplier, Pageable pageable) {
+    public Page<ProductResponse> searchProducts(String query, Long categoryId, BigDecimal minPrice,
+                                               BigDecimal maxPrice, String brand, String supplier,
+                                               Product.AbcClass abcClass, Product.VelocityClass velocityClass,
+                                               Pageable pageable) {
         Page<Product> products;
         
-        if (categoryId != null && query != null && !query.trim().isEmpty()) {
+        if (abcClass != null || velocityClass != null) {
+            products = productRepository.searchProductsByClass(abcClass, velocityClass,
+                    blankToNull(query), categoryId, minPrice, maxPrice, blankToNull(brand), blankToNull(supplier), pageable);
+        } else if (categoryId != null && query != null && !query.trim().isEmpty()) {
             products = productRepository.searchProductsByCategory(query, categoryId, pageable);
         } else if (query != null && !query.trim().isEmpty()) {
             products = productRepository.searchProducts(query, pageable);
@@ -446,11 +465,13 @@ public class ProductService {
     }
     
     /**
-     * Get products by category (DTO-based)
+     * Get products by category, optionally including its subcategories at any depth (DTO-based)
      */
     @Transactional(readOnly = true)
-    public Page<ProductResponse> getProductsByCategory(Long categoryId, Pageable pageable) {
-        Page<Product> products = productRepository.findByCategoryId(categoryId, pageable);
+    public Page<ProductResponse> getProductsByCategory(Long categoryId, boolean includeDescendants, Pageable pageable) {
+        Page<Product> products = includeDescendants
+                ? productRepository.findByCategorySubtree(categoryId, pageable)
+                : productRepository.findByCategoryId(categoryId, pageable);
         return products.map(this::mapToProductResponse);
     }
     
@@ -492,6 +513,34 @@ public class ProductService {
         return products.stream().map(this::mapToProductResponse).toList();
     }
     
+    /**
+     * Move one unit of the active product counters from one category to another, rolling up
+     * through the ancestors, and refresh the category tree. Null stands for not counted anywhere.
+     */
+    private void moveCategoryCount(Long fromCategoryId, Long toCategoryId) {
+        if (Objects.equals(fromCategoryId, toCategoryId)) {
+            return;
+        }
+        if (fromCategoryId != null) {
+            categoryRepository.adjustProductCounts(fromCategoryId, -1);
+        }
+        if (toCategoryId != null) {
+            categoryRepository.adjustProductCounts(toCategoryId, 1);
+        }
+        categoryTreeService.refreshAfterCommit();
+    }
+    
+    /**
+     * Category whose active product counter includes the product, or null for inactive products
+     */
+    private static Long countedCategoryId(Product product) {
+        return product.getIsActive() && product.getCategory() != null ? product.getCategory().getId() : null;
+    }
+    
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value;
+    }
+    
     /**
      * Map Product entity to ProductResponse DTO
      */
@@ -518,6 +567,9 @@ public class ProductService {
                 .isOverstocked(product.isOverstocked())
                 .profitMargin(product.getProfitMargin())
                 .profitAmount(product.getProfitAmount())
+                .abcClass(product.getAbcClass())
+                .velocityClass(product.getVelocityClass())
+                .classifiedAt(product.getClassifiedAt())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
                 .build();
@@ -0,0 +1,395 @@
+package com.ims.inventoryms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ims.inventoryms.dto.ReportJobRequest;
+import com.ims.inventoryms.dto.ReportJobResponse;
+import com.ims.inventoryms.entity.ReportJob;
+import com.ims.inventoryms.exception.ServiceBusyException;
+import com.ims.inventoryms.repository.ReportJobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Asynchronous report generation.
+ * <p>
+ * Submitted reports are persisted as jobs and run on a fixed pool of worker threads fed
+ * by a priority queue, so heavy reports never hold request threads. The queue is bounded
+ * and submissions beyond it are rejected. Results are written as gzip-compressed JSON
+ * files; a submission whose spec matches a queued, running or unexpired completed job
+ * returns that job instead of running the report again.
+ * <p>
+ * Each job belongs to the node it was submitted to ({@code reports.node-id}). Only that node
+ * runs it, resumes it after a restart, serves its download and deletes its expired result,
+ * unless {@code reports.directory} is shared by all nodes.
+ */
+@Service
+@Slf4j
+public class ReportJobService {
+    
+    private static final EnumSet<ReportJob.Status> IN_FLIGHT = EnumSet.of(ReportJob.Status.QUEUED, ReportJob.Status.RUNNING);
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    private final ReportJobRepository reportJobRepository;
+    private final DashboardService dashboardService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final Map<Long, JobTask> activeTasks = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    
+    @Value("${reports.directory}")
+    private String reportsDirectory;
+    
+    @Value("${reports.node-id}")
+    private String nodeId;
+    
+    @Value("${reports.max-queued}")
+    private int maxQueued;
+    
+    @Value("${reports.result-ttl-minutes}")
+    private long resultTtlMinutes;
+    
+    public ReportJobService(ReportJobRepository reportJobRepository,
+                            DashboardService dashboardService,
+                            ObjectMapper objectMapper,
+                            @Value("${reports.workers}") int workers) {
+        this.reportJobRepository = reportJobRepository;
+        this.dashboardService = dashboardService;
+        this.objectMapper = objectMapper;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "report-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+    
+    /**
+     * Requeue this node's jobs that were queued or running when it last stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingJobs() throws IOException {
+        Files.createDirectories(Path.of(reportsDirectory));
+        int resumed = 0;
+        for (ReportJob job : reportJobRepository.findByNodeIdAndStatusIn(nodeId, IN_FLIGHT)) {
+            job.setStatus(ReportJob.Status.QUEUED);
+            job.setStartedAt(null);
+            reportJobRepository.save(job);
+            enqueue(job);
+            resumed++;
+        }
+        if (resumed > 0) {
+            log.info("Resumed {} pending report jobs", resumed);
+        }
+    }
+    
+    /**
+     * Submit a report, reusing an identical queued, running or unexpired completed job
+     */
+    public synchronized ReportJobResponse submit(ReportJobRequest request) {
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (request.getGroupBy() != null && request.getReportType() != ReportJob.ReportType.SALES_CUBE) {
+            throw new IllegalArgumentException("Group by is only supported for sales cube reports");
+        }
+        
+        String groupBy = request.getGroupBy() != null ? request.getGroupBy().name() : null;
+        String specHash = specHash(request.getReportType(), request.getStartDate() + "|" + request.getEndDate() + "|" + groupBy);
+        
+        // A completed result is only reused if this node can serve it
+        Optional<ReportJob> existing = reportJobRepository
+                .findFirstBySpecHashAndNodeIdAndStatusAndExpiresAtAfterOrderByCompletedAtDesc(
+                        specHash, nodeId, ReportJob.Status.COMPLETED, LocalDateTime.now())
+                .filter(job -> Files.exists(Path.of(job.getResultPath())))
+                .or(() -> reportJobRepository.findFirstBySpecHashAndStatusInOrderByCreatedAtDesc(specHash, IN_FLIGHT));
+        if (existing.isPresent()) {
+            log.info("Reusing report job {} for {}", existing.get().getId(), request.getReportType());
+            return mapToResponse(existing.get(), true);
+        }
+        
+        if (executor.getQueue().size() >= maxQueued) {
+            throw new ServiceBusyException("Too many reports are queued, please try again later");
+        }
+        
+        ReportJob job = new ReportJob();
+        job.setReportType(request.getReportType());
+        job.setStartDate(request.getStartDate());
+        job.setEndDate(request.getEndDate());
+        job.setGroupBy(groupBy);
+        job.setSpecHash(specHash);
+        job.setPriority(request.getPriority() != null ? request.getPriority() : ReportJob.Priority.NORMAL);
+        job.setRequestedBy(currentUsername());
+        job.setNodeId(nodeId);
+        ReportJob savedJob = reportJobRepository.save(job);
+        enqueue(savedJob);
+        
+        log.info("Report job {} queued: {} from {} to {}", savedJob.getId(), savedJob.getReportType(),
+                savedJob.getStartDate(), savedJob.getEndDate());
+        return mapToResponse(savedJob, false);
+    }
+    
+    /**
+     * Get a report job by ID
+     */
+    public ReportJobResponse getJob(Long id) {
+        return mapToResponse(findJob(id), false);
+    }
+    
+    /**
+     * Path of a completed report's compressed result file
+     */
+    public Path getResultFile(Long id) {
+        ReportJob job = findJob(id);
+        if (job.getStatus() != ReportJob.Status.COMPLETED) {
+            throw new IllegalArgumentException("Report job " + id + " has no result available, status: " + job.getStatus());
+        }
+        Path file = Path.of(job.getResultPath());
+        if (!Files.exists(file) && !nodeId.equals(job.getNodeId())) {
+            throw new IllegalArgumentException("Result file of report job " + id + " is stored on node " + job.getNodeId());
+        }
+        if (!Files.exists(file)) {
+            throw new IllegalArgumentException("Result file of report job " + id + " is no longer available");
+        }
+        return file;
+    }
+    
+    /**
+     * Cancel a queued or running report job. A running report is interrupted and its result discarded.
+     */
+    public ReportJobResponse cancel(Long id) {
+        ReportJob job = findJob(id);
+        JobTask task = activeTasks.get(id);
+        if (!job.isFinished() && !nodeId.equals(job.getNodeId())) {
+            throw new IllegalArgumentException("Report job " + id + " is running on node " + job.getNodeId());
+        }
+        if (task == null || job.isFinished()) {
+            throw new IllegalArgumentException("Report job " + id + " is already " + job.getStatus());
+        }
+        
+        synchronized (task) {
+            // Re-read under the task lock in case the job finished since the lookup above
+            job = findJob(id);
+            if (job.isFinished()) {
+                throw new IllegalArgumentException("Report job " + id + " is already " + job.getStatus());
+            }
+            task.cancelled = true;
+            executor.remove(task);
+            if (task.runner != null) {
+                task.runner.interrupt();
+            }
+            job.setStatus(ReportJob.Status.CANCELLED);
+            job.setCompletedAt(LocalDateTime.now());
+            job = reportJobRepository.save(job);
+        }
+        activeTasks.remove(id);
+        
+        log.info("Report job {} cancelled", id);
+        return mapToResponse(job, false);
+    }
+    
+    /**
+     * Delete this node's result files past their TTL
+     */
+    @Scheduled(fixedDelayString = "${reports.cleanup-interval-ms}")
+    public void expireResults() {
+        int expired = 0;
+        for (ReportJob job : reportJobRepository.findByNodeIdAndStatusAndExpiresAtBefore(
+                nodeId, ReportJob.Status.COMPLETED, LocalDateTime.now())) {
+            try {
+                Files.deleteIfExists(Path.of(job.getResultPath()));
+            } catch (IOException e) {
+                log.warn("Failed to delete result file of report job {}", job.getId(), e);
+                continue;
+            }
+            job.setStatus(ReportJob.Status.EXPIRED);
+            reportJobRepository.save(job);
+            expired++;
+        }
+        if (expired > 0) {
+            log.info("Expired {} report results", expired);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted and queued jobs stay RUNNING or QUEUED and are resumed on the next start
+        executor.shutdownNow();
+    }
+    
+    private void enqueue(ReportJob job) {
+        JobTask task = new JobTask(job.getId(), job.getPriority(), sequence.incrementAndGet());
+        activeTasks.put(job.getId(), task);
+        executor.execute(task);
+    }
+    
+    private void run(JobTask task) {
+        ReportJob job;
+        synchronized (task) {
+            if (task.cancelled) {
+                return;
+            }
+            task.runner = Thread.currentThread();
+            job = findJob(task.jobId);
+            job.setStatus(ReportJob.Status.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            job = reportJobRepository.save(job);
+        }
+        
+        Path resultFile = Path.of(reportsDirectory, "report-" + job.getId() + ".json.gz");
+        Path tempFile = Path.of(reportsDirectory, "report-" + job.getId() + ".json.gz.tmp");
+        Object result = null;
+        Exception failure = null;
+        try {
+            result = generate(job);
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+                objectMapper.writeValue(out, result);
+            }
+            Files.move(tempFile, resultFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            failure = e;
+        }
+        
+        synchronized (task) {
+            task.runner = null;
+            Thread.interrupted();
+            activeTasks.remove(task.jobId);
+            try {
+                if (task.cancelled) {
+                    Files.deleteIfExists(tempFile);
+                    Files.deleteIfExists(resultFile);
+                    return;
+                }
+                job = findJob(task.jobId);
+                job.setCompletedAt(LocalDateTime.now());
+                if (failure == null) {
+                    job.setStatus(ReportJob.Status.COMPLETED);
+                    job.setResultPath(resultFile.toString());
+                    job.setResultSize(Files.size(resultFile));
+                    job.setExpiresAt(job.getCompletedAt().plusMinutes(resultTtlMinutes));
+                    log.info("Report job {} completed in {} ms", job.getId(),
+                            Duration.between(job.getStartedAt(), job.getCompletedAt()).toMillis());
+                } else {
+                    Files.deleteIfExists(tempFile);
+                    String message = String.valueOf(failure.getMessage());
+                    job.setStatus(ReportJob.Status.FAILED);
+                    job.setErrorMessage(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+                    log.error("Report job {} failed", job.getId(), failure);
+                }
+                reportJobRepository.save(job);
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to record the outcome of report job {}", task.jobId, e);
+            }
+        }
+    }
+    
+    private Object generate(ReportJob job) {
+        return switch (job.getReportType()) {
+            case SALES_ANALYTICS -> dashboardService.getSalesAnalytics(
+                    job.getStartDate().atStartOfDay(), job.getEndDate().atTime(23, 59, 59));
+            case SALES_CUBE -> dashboardService.getSalesCube(
+                    new SalesCubeService.Slice(job.getStartDate(), job.getEndDate(), null, null, null, null),
+                    job.getGroupBy() != null ? SalesCubeService.Dimension.valueOf(job.getGroupBy()) : null);
+        };
+    }
+    
+    private ReportJob findJob(Long id) {
+        return reportJobRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Report job not found with id: " + id));
+    }
+    
+    private static String specHash(ReportJob.ReportType type, String parameters) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((type.name() + "|" + parameters).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+    
+    private ReportJobResponse mapToResponse(ReportJob job, boolean reused) {
+        return ReportJobResponse.builder()
+                .id(job.getId())
+                .reportType(job.getReportType())
+                .startDate(job.getStartDate())
+                .endDate(job.getEndDate())
+                .groupBy(job.getGroupBy())
+                .priority(job.getPriority())
+                .status(job.getStatus())
+                .requestedBy(job.getRequestedBy())
+                .nodeId(job.getNodeId())
+                .resultSize(job.getResultSize())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .expiresAt(job.getExpiresAt())
+                .reused(reused)
+                .downloadUrl(job.getStatus() == ReportJob.Status.COMPLETED
+                        ? "/api/sales/reports/" + job.getId() + "/download" : null)
+                .build();
+    }
+    
+    /**
+     * Queued unit of work, ordered by priority and then submission order
+     */
+    private class JobTask implements Runnable, Comparable<JobTask> {
+        private final Long jobId;
+        private final ReportJob.Priority priority;
+        private final long sequence;
+        private volatile boolean cancelled;
+        private volatile Thread runner;
+        
+        private JobTask(Long jobId, ReportJob.Priority priority, long sequence) {
+            this.jobId = jobId;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+        
+        @Override
+        public void run() {
+            ReportJobService.this.run(this);
+        }
+        
+        @Override
+        public int compareTo(JobTask other) {
+            int byPriority = other.priority.compareTo(priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
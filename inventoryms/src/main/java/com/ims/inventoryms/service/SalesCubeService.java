@@ -0,0 +1,357 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.dto.SalesCubeResponse;
+import com.ims.inventoryms.entity.Order;
+import com.ims.inventoryms.event.OrderChangedEvent;
+import com.ims.inventoryms.repository.OrderItemRepository;
+import com.ims.inventoryms.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * In-memory sales cube over day x order status x payment status x payment method x category.
+ * <p>
+ * Each day holds one block of primitive counters per category, allocated on first use.
+ * Category 0 is the order-level block (whole order totals); a real category block counts the
+ * orders containing that category and the revenue and units of its lines. Cells store
+ * order count, revenue in cents and units.
+ * <p>
+ * Order changes that commit while the cube is loading are buffered and reconciled against
+ * the state the load read, so an order is never counted by both the scan and its event.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesCubeService {
+
+    public static final int RETAINED_DAYS = 400;
+
+    private static final long ORDER_LEVEL = 0L;
+    private static final int MEASURES = 3;
+    private static final int ORDERS = 0;
+    private static final int REVENUE_CENTS = 1;
+    private static final int UNITS = 2;
+
+    private static final Order.OrderStatus[] ORDER_STATUSES = Order.OrderStatus.values();
+    private static final Order.PaymentStatus[] PAYMENT_STATUSES = Order.PaymentStatus.values();
+    private static final Order.PaymentMethod[] PAYMENT_METHODS = Order.PaymentMethod.values();
+    // One extra method slot for orders without a payment method
+    private static final int METHOD_SLOTS = PAYMENT_METHODS.length + 1;
+    private static final int CELLS_PER_BLOCK = ORDER_STATUSES.length * PAYMENT_STATUSES.length * METHOD_SLOTS;
+
+    private final OrderItemRepository orderItemRepository;
+    private final OrderRepository orderRepository;
+
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Long, AtomicLongArray>> days = new ConcurrentHashMap<>();
+
+    // Guarded by itself; holds events committed before the load finished
+    private final List<OrderChangedEvent> pendingEvents = new ArrayList<>();
+
+    private volatile boolean loaded;
+
+    /**
+     * Cube dimensions that can be used for grouping
+     */
+    public enum Dimension {
+        DAY,
+        ORDER_STATUS,
+        PAYMENT_STATUS,
+        PAYMENT_METHOD,
+        CATEGORY
+    }
+
+    /**
+     * Filter over the cube; null fields mean "all"
+     */
+    public record Slice(LocalDate startDate, LocalDate endDate,
+                        Order.OrderStatus orderStatus, Order.PaymentStatus paymentStatus,
+                        Order.PaymentMethod paymentMethod, Long categoryId) {
+    }
+
+    /**
+     * Fill the cube from orders in the retained window.
+     * Runs in one read-only transaction, so the scan and the reconciliation of buffered
+     * events read the same consistent snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        LocalDateTime since = LocalDate.now().minusDays(RETAINED_DAYS - 1).atStartOfDay();
+        long orders = 0;
+
+        try (Stream<Object[]> rows = orderItemRepository.streamOrderLinesSince(since)) {
+            Long currentOrderId = null;
+            Object[] orderRow = null;
+            Map<Long, long[]> categories = new HashMap<>();
+            int orderUnits = 0;
+
+            for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); ) {
+                Object[] row = it.next();
+                Long orderId = (Long) row[0];
+                if (!orderId.equals(currentOrderId)) {
+                    if (orderRow != null) {
+                        addLoadedOrder(orderRow, categories, orderUnits);
+                        orders++;
+                    }
+                    currentOrderId = orderId;
+                    orderRow = row;
+                    categories = new HashMap<>();
+                    orderUnits = 0;
+                }
+                int quantity = (Integer) row[7];
+                long[] category = categories.computeIfAbsent((Long) row[6], id -> new long[2]);
+                category[0] += Money.toCents(((BigDecimal) row[8]).multiply(BigDecimal.valueOf(quantity)));
+                category[1] += quantity;
+                orderUnits += quantity;
+            }
+            if (orderRow != null) {
+                addLoadedOrder(orderRow, categories, orderUnits);
+                orders++;
+            }
+        }
+
+        int replayed;
+        synchronized (pendingEvents) {
+            replayed = replayPendingEvents();
+            loaded = true;
+        }
+        log.info("Sales cube loaded with {} orders over {} days ({} buffered changes applied)",
+                orders, days.size(), replayed);
+    }
+
+    /**
+     * Apply order changes once the transaction that made them has committed
+     */
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!loaded) {
+            synchronized (pendingEvents) {
+                if (!loaded) {
+                    pendingEvents.add(event);
+                    return;
+                }
+            }
+        }
+        apply(event);
+    }
+
+    /**
+     * Apply buffered events that the load scan did not already see. The scan's view of each
+     * order is read from the same snapshot; events are skipped until one starts from that state.
+     */
+    private int replayPendingEvents() {
+        if (pendingEvents.isEmpty()) {
+            return 0;
+        }
+        Set<Long> orderIds = new HashSet<>();
+        pendingEvents.forEach(event -> orderIds.add(event.getOrderId()));
+        Map<Long, String> scannedStates = new HashMap<>();
+        for (Object[] row : orderRepository.findStatusesByIdIn(orderIds)) {
+            scannedStates.put((Long) row[0], stateKey((Order.OrderStatus) row[1], (Order.PaymentStatus) row[2]));
+        }
+
+        int replayed = 0;
+        for (OrderChangedEvent event : pendingEvents) {
+            String known = scannedStates.get(event.getOrderId());
+            boolean seen = event.isCreated()
+                    ? known != null
+                    : !stateKey(event.getPreviousOrderStatus(), event.getPreviousPaymentStatus()).equals(known);
+            if (!seen) {
+                apply(event);
+                replayed++;
+                // Later changes of this order follow on from this one
+                scannedStates.put(event.getOrderId(), stateKey(event.getOrderStatus(), event.getPaymentStatus()));
+            }
+        }
+        pendingEvents.clear();
+        return replayed;
+    }
+
+    private static String stateKey(Order.OrderStatus status, Order.PaymentStatus payment) {
+        return status + "/" + payment;
+    }
+
+    private void apply(OrderChangedEvent event) {
+        Map<Long, long[]> categories = new HashMap<>();
+        for (OrderChangedEvent.Line line : event.getLines()) {
+            long[] category = categories.computeIfAbsent(line.getCategoryId(), id -> new long[2]);
+            category[0] += Money.toCents(line.getAmount());
+            category[1] += line.getQuantity();
+        }
+        long day = event.getOrderDate().toLocalDate().toEpochDay();
+        long orderCents = Money.toCents(event.getTotalAmount());
+
+        if (!event.isCreated()) {
+            addOrder(day, event.getPreviousOrderStatus(), event.getPreviousPaymentStatus(), event.getPaymentMethod(),
+                    orderCents, event.getTotalQuantity(), categories, -1);
+        }
+        addOrder(day, event.getOrderStatus(), event.getPaymentStatus(), event.getPaymentMethod(),
+                orderCents, event.getTotalQuantity(), categories, 1);
+    }
+
+    /**
+     * Whether the cube can answer queries starting at the given date
+     */
+    public boolean covers(LocalDate startDate) {
+        return loaded && !startDate.isBefore(LocalDate.now().minusDays(RETAINED_DAYS - 1));
+    }
+
+    /**
+     * Roll up all cells matching the slice
+     */
+    public SalesCubeResponse.Cell rollup(Slice slice) {
+        long[] totals = new long[MEASURES];
+        scan(slice, (day, status, payment, method, categoryId, cells, offset) -> {
+            totals[ORDERS] += cells.get(offset + ORDERS);
+            totals[REVENUE_CENTS] += cells.get(offset + REVENUE_CENTS);
+            totals[UNITS] += cells.get(offset + UNITS);
+        });
+        return toCell(totals);
+    }
+
+    /**
+     * Roll up cells matching the slice, grouped by one dimension
+     */
+    public Map<String, SalesCubeResponse.Cell> groupBy(Slice slice, Dimension dimension) {
+        Map<String, long[]> groups = new TreeMap<>();
+        scan(slice, (day, status, payment, method, categoryId, cells, offset) -> {
+            String key = switch (dimension) {
+                case DAY -> LocalDate.ofEpochDay(day).toString();
+                case ORDER_STATUS -> status.name();
+                case PAYMENT_STATUS -> payment.name();
+                case PAYMENT_METHOD -> method != null ? method.name() : "NONE";
+                case CATEGORY -> String.valueOf(categoryId);
+            };
+            long[] totals = groups.computeIfAbsent(key, k -> new long[MEASURES]);
+            totals[ORDERS] += cells.get(offset + ORDERS);
+            totals[REVENUE_CENTS] += cells.get(offset + REVENUE_CENTS);
+            totals[UNITS] += cells.get(offset + UNITS);
+        }, dimension == Dimension.CATEGORY);
+
+        Map<String, SalesCubeResponse.Cell> result = new LinkedHashMap<>();
+        groups.forEach((key, totals) -> {
+            if (totals[ORDERS] != 0 || totals[REVENUE_CENTS] != 0 || totals[UNITS] != 0) {
+                result.put(key, toCell(totals));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Drop days that have left the retained window
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictExpiredDays() {
+        long oldest = LocalDate.now().minusDays(RETAINED_DAYS - 1).toEpochDay();
+        days.keySet().removeIf(day -> day < oldest);
+    }
+
+    private void addLoadedOrder(Object[] row, Map<Long, long[]> categories, int units) {
+        long day = ((LocalDateTime) row[1]).toLocalDate().toEpochDay();
+        addOrder(day, (Order.OrderStatus) row[2], (Order.PaymentStatus) row[3], (Order.PaymentMethod) row[4],
+                Money.toCents((BigDecimal) row[5]), units, categories, 1);
+    }
+
+    private void addOrder(long day, Order.OrderStatus status, Order.PaymentStatus payment, Order.PaymentMethod method,
+                          long orderCents, int units, Map<Long, long[]> categories, int sign) {
+        if (day < LocalDate.now().minusDays(RETAINED_DAYS - 1).toEpochDay()) {
+            return;
+        }
+        ConcurrentHashMap<Long, AtomicLongArray> blocks = days.computeIfAbsent(day, d -> new ConcurrentHashMap<>());
+        int offset = cellOffset(status, payment, method);
+
+        AtomicLongArray orderBlock = blocks.computeIfAbsent(ORDER_LEVEL, c -> new AtomicLongArray(CELLS_PER_BLOCK * MEASURES));
+        orderBlock.addAndGet(offset + ORDERS, sign);
+        orderBlock.addAndGet(offset + REVENUE_CENTS, sign * orderCents);
+        orderBlock.addAndGet(offset + UNITS, (long) sign * units);
+
+        categories.forEach((categoryId, measures) -> {
+            AtomicLongArray block = blocks.computeIfAbsent(categoryId, c -> new AtomicLongArray(CELLS_PER_BLOCK * MEASURES));
+            block.addAndGet(offset + ORDERS, sign);
+            block.addAndGet(offset + REVENUE_CENTS, sign * measures[0]);
+            block.addAndGet(offset + UNITS, sign * measures[1]);
+        });
+    }
+
+    private void scan(Slice slice, CellVisitor visitor) {
+        scan(slice, visitor, false);
+    }
+
+    private void scan(Slice slice, CellVisitor visitor, boolean allCategories) {
+        long from = slice.startDate().toEpochDay();
+        long to = slice.endDate().toEpochDay();
+        for (long day = from; day <= to; day++) {
+            ConcurrentHashMap<Long, AtomicLongArray> blocks = days.get(day);
+            if (blocks == null) {
+                continue;
+            }
+            if (slice.categoryId() != null) {
+                visitBlock(day, slice.categoryId(), blocks.get(slice.categoryId()), slice, visitor);
+            } else if (allCategories) {
+                for (Map.Entry<Long, AtomicLongArray> block : blocks.entrySet()) {
+                    if (block.getKey() != ORDER_LEVEL) {
+                        visitBlock(day, block.getKey(), block.getValue(), slice, visitor);
+                    }
+                }
+            } else {
+                visitBlock(day, null, blocks.get(ORDER_LEVEL), slice, visitor);
+            }
+        }
+    }
+
+    private void visitBlock(long day, Long categoryId, AtomicLongArray cells, Slice slice, CellVisitor visitor) {
+        if (cells == null) {
+            return;
+        }
+        for (Order.OrderStatus status : ORDER_STATUSES) {
+            if (slice.orderStatus() != null && slice.orderStatus() != status) {
+                continue;
+            }
+            for (Order.PaymentStatus payment : PAYMENT_STATUSES) {
+                if (slice.paymentStatus() != null && slice.paymentStatus() != payment) {
+                    continue;
+                }
+                for (int m = 0; m < METHOD_SLOTS; m++) {
+                    Order.PaymentMethod method = m < PAYMENT_METHODS.length ? PAYMENT_METHODS[m] : null;
+                    if (slice.paymentMethod() != null && slice.paymentMethod() != method) {
+                        continue;
+                    }
+                    visitor.visit(day, status, payment, method, categoryId, cells, cellOffset(status, payment, method));
+                }
+            }
+        }
+    }
+
+    private static int cellOffset(Order.OrderStatus status, Order.PaymentStatus payment, Order.PaymentMethod method) {
+        int methodSlot = method != null ? method.ordinal() : PAYMENT_METHODS.length;
+        return ((status.ordinal() * PAYMENT_STATUSES.length + payment.ordinal()) * METHOD_SLOTS + methodSlot) * MEASURES;
+    }
+
+    private static SalesCubeResponse.Cell toCell(long[] totals) {
+        return SalesCubeResponse.Cell.builder()
+                .orders(totals[ORDERS])
+                .revenue(BigDecimal.valueOf(totals[REVENUE_CENTS], 2))
+                .units(totals[UNITS])
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface CellVisitor {
+        void visit(long day, Order.OrderStatus status, Order.PaymentStatus payment, Order.PaymentMethod method,
+                   Long categoryId, AtomicLongArray cells, int offset);
+    }
+}
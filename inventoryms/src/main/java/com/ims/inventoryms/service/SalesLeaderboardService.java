@@ -0,0 +1,129 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.dto.SalesLeaderboardResponse;
+import com.ims.inventoryms.event.OrderChangedEvent;
+import com.ims.inventoryms.repository.UserDailySalesRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service maintaining per-sales-rep daily aggregates and ranking reps over a period
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class SalesLeaderboardService {
+    
+    private final UserDailySalesRepository userDailySalesRepository;
+    
+    /**
+     * Leaderboard ranking criteria
+     */
+    public enum Metric {
+        REVENUE,
+        ORDERS,
+        UNITS
+    }
+    
+    /**
+     * Count new orders and move revenue and units in or out on cancellation.
+     * Runs inside the transaction that changed the order.
+     */
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        
+        LocalDate day = event.getOrderDate().toLocalDate();
+        if (event.isCreated()) {
+            long sign = event.isCancelled() ? 0 : 1;
+            userDailySalesRepository.applyDelta(event.getUserId(), day, 1,
+                    event.getTotalAmount().multiply(BigDecimal.valueOf(sign)),
+                    sign * event.getTotalQuantity(), 1 - sign);
+        } else if (event.isCancelled() != event.wasCancelled()) {
+            long sign = event.isCancelled() ? -1 : 1;
+            userDailySalesRepository.applyDelta(event.getUserId(), day, 0,
+                    event.getTotalAmount().multiply(BigDecimal.valueOf(sign)),
+                    sign * event.getTotalQuantity(), -sign);
+        }
+    }
+    
+    /**
+     * Seed the aggregates from existing orders the first time they are deployed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (userDailySalesRepository.count() == 0) {
+            int rows = userDailySalesRepository.rebuildFromOrders();
+            log.info("Per-user daily sales seeded with {} rows", rows);
+        }
+    }
+    
+    /**
+     * Rank sales reps over a date range by the given metric
+     */
+    @Transactional(readOnly = true)
+    public SalesLeaderboardResponse getLeaderboard(LocalDate startDate, LocalDate endDate, Metric metric, int limit) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        
+        List<SalesLeaderboardResponse.Entry> entries = new ArrayList<>();
+        for (Object[] row : userDailySalesRepository.sumByUserBetween(startDate, endDate)) {
+            long orders = ((Number) row[4]).longValue();
+            BigDecimal revenue = (BigDecimal) row[5];
+            long units = ((Number) row[6]).longValue();
+            long cancellations = ((Number) row[7]).longValue();
+            long completedOrders = orders - cancellations;
+            
+            entries.add(SalesLeaderboardResponse.Entry.builder()
+                    .userId((Long) row[0])
+                    .username((String) row[1])
+                    .fullName(row[2] + " " + row[3])
+                    .orders(orders)
+                    .revenue(revenue)
+                    .units(units)
+                    .cancellations(cancellations)
+                    .cancellationRate(orders > 0 ? Math.round(10000.0 * cancellations / orders) / 10000.0 : 0)
+                    .averageOrderValue(completedOrders > 0
+                            ? revenue.divide(BigDecimal.valueOf(completedOrders), 2, RoundingMode.HALF_UP)
+                            : BigDecimal.ZERO)
+                    .build());
+        }
+        
+        Comparator<SalesLeaderboardResponse.Entry> order = switch (metric) {
+            case REVENUE -> Comparator.comparing(SalesLeaderboardResponse.Entry::getRevenue);
+            case ORDERS -> Comparator.comparingLong(SalesLeaderboardResponse.Entry::getOrders);
+            case UNITS -> Comparator.comparingLong(SalesLeaderboardResponse.Entry::getUnits);
+        };
+        entries.sort(order.reversed().thenComparing(SalesLeaderboardResponse.Entry::getUserId));
+        
+        List<SalesLeaderboardResponse.Entry> ranked = entries.subList(0, Math.min(limit, entries.size()));
+        for (int i = 0; i < ranked.size(); i++) {
+            ranked.get(i).setRank(i + 1);
+        }
+        
+        return SalesLeaderboardResponse.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .rankedBy(metric.name())
+                .entries(new ArrayList<>(ranked))
+                .build();
+    }
+}
@@ -0,0 +1,411 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.entity.Order;
+import com.ims.inventoryms.entity.OrderReadModel;
+import com.ims.inventoryms.entity.SalesSketch;
+import com.ims.inventoryms.event.OrderChangedEvent;
+import com.ims.inventoryms.repository.OrderReadModelRepository;
+import com.ims.inventoryms.repository.OrderRepository;
+import com.ims.inventoryms.repository.SalesSketchRepository;
+import com.ims.inventoryms.sketch.CountMinSketch;
+import com.ims.inventoryms.sketch.HyperLogLog;
+import com.ims.inventoryms.sketch.TDigest;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-day streaming sketches fed from order creation: a HyperLogLog of distinct
+ * customers, a count-min sketch with top-k heavy-hitter products by units, and
+ * t-digests of order value and basket size.
+ * <p>
+ * Product units are removed again when an order is cancelled, matching the sales cube and
+ * daily rollup. HyperLogLog and t-digest cannot remove values, so distinct customers and
+ * order value and basket size percentiles include cancelled orders.
+ * <p>
+ * Each node keeps the sketches of the retained days in memory and periodically writes
+ * them to sales_sketches under its node id. Range queries merge the local daily sketches
+ * with the ones other nodes have persisted. Rows of every node are deleted once their day
+ * leaves the retained window.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesSketchService {
+    
+    public static final int RETAINED_DAYS = 90;
+    
+    private static final int TOP_K = 50;
+    private static final int SEED_PAGE_SIZE = 1000;
+    // Marker rows that record which node seeded each sketch type; outside any queried date range
+    private static final LocalDate SEED_MARKER_DATE = LocalDate.EPOCH;
+    private static final String SEED_MARKER_NODE = "#seed";
+    
+    private final SalesSketchRepository salesSketchRepository;
+    private final OrderReadModelRepository orderReadModelRepository;
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    
+    private final Map<LocalDate, DaySketches> days = new ConcurrentHashMap<>();
+    // Changes committed before the sketches are loaded; guarded by its own monitor
+    private final List<OrderChangedEvent> pendingEvents = new ArrayList<>();
+    
+    private volatile boolean loaded;
+    
+    @Value("${sales.sketches.node-id}")
+    private String nodeId;
+    
+    /**
+     * Load this node's persisted sketches, seeding sketch types no node has written yet from orders.
+     * Only the node that inserts a type's seed marker seeds it, so history is counted once
+     * even when several nodes start together. The seed scan and the reconciliation of changes
+     * buffered meanwhile read the same snapshot, so no order is counted twice or missed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        LocalDate since = oldestRetainedDay();
+        for (SalesSketch row : salesSketchRepository.findByNodeIdSince(nodeId, since)) {
+            DaySketches day = day(row.getSalesDate());
+            switch (row.getSketchType()) {
+                case CUSTOMERS -> day.customers.merge(HyperLogLog.fromBytes(row.getPayload()));
+                case PRODUCTS -> day.products.merge(CountMinSketch.fromBytes(row.getPayload()));
+                case ORDER_VALUE -> day.orderValue.merge(TDigest.fromBytes(row.getPayload()));
+                case BASKET_SIZE -> day.basketSize.merge(TDigest.fromBytes(row.getPayload()));
+            }
+        }
+        log.info("Loaded sales sketches for {} days on node {}", days.size(), nodeId);
+        
+        EnumSet<SalesSketch.SketchType> missing = EnumSet.noneOf(SalesSketch.SketchType.class);
+        for (SalesSketch.SketchType type : SalesSketch.SketchType.values()) {
+            if (!salesSketchRepository.existsBySketchType(type)
+                    && salesSketchRepository.claimSeed(SEED_MARKER_DATE, SEED_MARKER_NODE, type.name()) == 1) {
+                missing.add(type);
+            }
+        }
+        if (!missing.isEmpty()) {
+            seed(since, missing);
+        }
+        
+        int replayed;
+        synchronized (pendingEvents) {
+            replayed = replayPendingEvents(missing);
+            loaded = true;
+        }
+        if (!missing.isEmpty()) {
+            persist();
+        }
+        log.info("Sales sketches ready ({} buffered changes applied)", replayed);
+    }
+    
+    /**
+     * Add newly created orders, and remove or restore product units when an order is
+     * cancelled or reinstated, once the transaction has committed
+     */
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!loaded) {
+            synchronized (pendingEvents) {
+                if (!loaded) {
+                    pendingEvents.add(event);
+                    return;
+                }
+            }
+        }
+        apply(event, EnumSet.allOf(SalesSketch.SketchType.class));
+    }
+    
+    /**
+     * Apply buffered events. Sketch types loaded from persisted rows take every event; seeded types
+     * skip events the seed scan already saw, judged by each order's state in the scan's snapshot.
+     */
+    private int replayPendingEvents(EnumSet<SalesSketch.SketchType> seeded) {
+        if (pendingEvents.isEmpty()) {
+            return 0;
+        }
+        Map<Long, String> scannedStates = new HashMap<>();
+        if (!seeded.isEmpty()) {
+            Set<Long> orderIds = new HashSet<>();
+            pendingEvents.forEach(event -> orderIds.add(event.getOrderId()));
+            for (Object[] row : orderRepository.findStatusesByIdIn(orderIds)) {
+                scannedStates.put((Long) row[0], stateKey((Order.OrderStatus) row[1], (Order.PaymentStatus) row[2]));
+            }
+        }
+        
+        EnumSet<SalesSketch.SketchType> all = EnumSet.allOf(SalesSketch.SketchType.class);
+        EnumSet<SalesSketch.SketchType> notSeeded = EnumSet.complementOf(seeded);
+        for (OrderChangedEvent event : pendingEvents) {
+            String known = scannedStates.get(event.getOrderId());
+            boolean seen = !seeded.isEmpty() && (event.isCreated()
+                    ? known != null
+                    : !stateKey(event.getPreviousOrderStatus(), event.getPreviousPaymentStatus()).equals(known));
+            if (seen) {
+                apply(event, notSeeded);
+            } else {
+                apply(event, all);
+                // Later changes of this order follow on from this one
+                scannedStates.put(event.getOrderId(), stateKey(event.getOrderStatus(), event.getPaymentStatus()));
+            }
+        }
+        int replayed = pendingEvents.size();
+        pendingEvents.clear();
+        return replayed;
+    }
+    
+    private void apply(OrderChangedEvent event, Set<SalesSketch.SketchType> types) {
+        if (types.isEmpty() || event.getOrderDate().toLocalDate().isBefore(oldestRetainedDay())) {
+            return;
+        }
+        if (!event.isCreated()) {
+            if (types.contains(SalesSketch.SketchType.PRODUCTS) && event.isCancelled() != event.wasCancelled()) {
+                int sign = event.isCancelled() ? -1 : 1;
+                DaySketches day = day(event.getOrderDate().toLocalDate());
+                for (OrderChangedEvent.Line line : event.getLines()) {
+                    day.products.add(line.getProductId(), (long) sign * line.getQuantity());
+                }
+                day.dirty = true;
+            }
+            return;
+        }
+        DaySketches day = day(event.getOrderDate().toLocalDate());
+        String customerKey = event.getCustomerKey();
+        if (types.contains(SalesSketch.SketchType.CUSTOMERS) && customerKey != null) {
+            day.customers.add(customerKey);
+        }
+        if (types.contains(SalesSketch.SketchType.PRODUCTS)) {
+            for (OrderChangedEvent.Line line : event.getLines()) {
+                day.products.add(line.getProductId(), line.getQuantity());
+            }
+        }
+        if (types.contains(SalesSketch.SketchType.ORDER_VALUE)) {
+            day.orderValue.add(event.getTotalAmount().doubleValue());
+        }
+        if (types.contains(SalesSketch.SketchType.BASKET_SIZE)) {
+            day.basketSize.add(event.getTotalQuantity());
+        }
+        day.dirty = true;
+    }
+    
+    private static String stateKey(Order.OrderStatus status, Order.PaymentStatus payment) {
+        return status + "/" + payment;
+    }
+    
+    /**
+     * Estimated number of distinct customers who ordered within the date range, across all nodes
+     */
+    @Transactional(readOnly = true)
+    public long countDistinctCustomers(LocalDate startDate, LocalDate endDate) {
+        HyperLogLog merged = new HyperLogLog();
+        LocalDate start = clamp(startDate);
+        for (LocalDate date = start; !date.isAfter(endDate); date = date.plusDays(1)) {
+            DaySketches day = days.get(date);
+            if (day != null) {
+                merged.merge(day.customers);
+            }
+        }
+        for (SalesSketch row : salesSketchRepository.findFromOtherNodes(
+                SalesSketch.SketchType.CUSTOMERS, nodeId, start, endDate)) {
+            merged.merge(HyperLogLog.fromBytes(row.getPayload()));
+        }
+        return merged.estimate();
+    }
+    
+    /**
+     * Estimated top products by units ordered within the date range, across all nodes, highest first
+     */
+    @Transactional(readOnly = true)
+    public List<Map.Entry<Long, Long>> findTopProducts(LocalDate startDate, LocalDate endDate, int limit) {
+        CountMinSketch merged = new CountMinSketch(TOP_K);
+        LocalDate start = clamp(startDate);
+        for (LocalDate date = start; !date.isAfter(endDate); date = date.plusDays(1)) {
+            DaySketches day = days.get(date);
+            if (day != null) {
+                merged.merge(day.products);
+            }
+        }
+        for (SalesSketch row : salesSketchRepository.findFromOtherNodes(
+                SalesSketch.SketchType.PRODUCTS, nodeId, start, endDate)) {
+            merged.merge(CountMinSketch.fromBytes(row.getPayload()));
+        }
+        List<Map.Entry<Long, Long>> top = merged.topK();
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+    
+    /**
+     * Merged order value digest within the date range, across all nodes
+     */
+    @Transactional(readOnly = true)
+    public TDigest mergeOrderValues(LocalDate startDate, LocalDate endDate) {
+        return mergeDigests(SalesSketch.SketchType.ORDER_VALUE, startDate, endDate);
+    }
+    
+    /**
+     * Merged basket size (units per order) digest within the date range, across all nodes
+     */
+    @Transactional(readOnly = true)
+    public TDigest mergeBasketSizes(LocalDate startDate, LocalDate endDate) {
+        return mergeDigests(SalesSketch.SketchType.BASKET_SIZE, startDate, endDate);
+    }
+    
+    /**
+     * Write sketches that changed since the last run
+     */
+    @Scheduled(fixedDelayString = "${sales.sketches.persist-interval-ms}")
+    @Transactional
+    public void persist() {
+        int written = 0;
+        for (Map.Entry<LocalDate, DaySketches> entry : days.entrySet()) {
+            DaySketches day = entry.getValue();
+            if (!day.dirty) {
+                continue;
+            }
+            // Cleared before serializing so that concurrent additions mark the day dirty again
+            day.dirty = false;
+            save(entry.getKey(), SalesSketch.SketchType.CUSTOMERS, day.customers.toBytes());
+            save(entry.getKey(), SalesSketch.SketchType.PRODUCTS, day.products.toBytes());
+            save(entry.getKey(), SalesSketch.SketchType.ORDER_VALUE, day.orderValue.toBytes());
+            save(entry.getKey(), SalesSketch.SketchType.BASKET_SIZE, day.basketSize.toBytes());
+            written++;
+        }
+        if (written > 0) {
+            log.debug("Persisted sales sketches for {} days", written);
+        }
+    }
+    
+    /**
+     * Drop sketches that have left the retained window, in memory and those persisted by any node.
+     * Node ids change with every container restart, so without this the table would keep growing.
+     */
+    @Scheduled(cron = "0 10 0 * * *")
+    @Transactional
+    public void evictExpiredDays() {
+        LocalDate oldest = oldestRetainedDay();
+        days.keySet().removeIf(date -> date.isBefore(oldest));
+        int deleted = salesSketchRepository.deleteOlderThan(oldest, SEED_MARKER_NODE);
+        if (deleted > 0) {
+            log.debug("Deleted {} expired sales sketch rows", deleted);
+        }
+    }
+    
+    @PreDestroy
+    public void flush() {
+        try {
+            persist();
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist sales sketches on shutdown", e);
+        }
+    }
+    
+    /**
+     * Add the orders of the retained window to the given sketch types, paging by ID
+     */
+    private void seed(LocalDate since, Set<SalesSketch.SketchType> types) {
+        LocalDateTime start = since.atStartOfDay();
+        long afterId = 0;
+        long orders = 0;
+        List<OrderReadModel> page;
+        while (!(page = orderReadModelRepository.findPlacedSinceAfter(
+                start, afterId, PageRequest.of(0, SEED_PAGE_SIZE))).isEmpty()) {
+            for (OrderReadModel order : page) {
+                DaySketches day = day(order.getOrderDate().toLocalDate());
+                int units = order.getLineItems().stream().mapToInt(OrderReadModel.LineSnapshot::getQuantity).sum();
+                String customerKey = OrderChangedEvent.customerKey(
+                        order.getCustomerName(), order.getCustomerEmail(), order.getCustomerPhone());
+                if (types.contains(SalesSketch.SketchType.CUSTOMERS) && customerKey != null) {
+                    day.customers.add(customerKey);
+                }
+                if (types.contains(SalesSketch.SketchType.PRODUCTS)
+                        && order.getOrderStatus() != Order.OrderStatus.CANCELLED) {
+                    for (OrderReadModel.LineSnapshot line : order.getLineItems()) {
+                        day.products.add(line.getProductId(), line.getQuantity());
+                    }
+                }
+                if (types.contains(SalesSketch.SketchType.ORDER_VALUE)) {
+                    day.orderValue.add(order.getTotalAmount().doubleValue());
+                }
+                if (types.contains(SalesSketch.SketchType.BASKET_SIZE)) {
+                    day.basketSize.add(units);
+                }
+                day.dirty = true;
+                orders++;
+            }
+            afterId = page.get(page.size() - 1).getId();
+            // Only the sketches are kept; the snapshot stays the same across pages
+            entityManager.clear();
+        }
+        log.info("Seeded sales sketches {} from {} orders", types, orders);
+    }
+    
+    private TDigest mergeDigests(SalesSketch.SketchType type, LocalDate startDate, LocalDate endDate) {
+        TDigest merged = new TDigest();
+        LocalDate start = clamp(startDate);
+        for (LocalDate date = start; !date.isAfter(endDate); date = date.plusDays(1)) {
+            DaySketches day = days.get(date);
+            if (day != null) {
+                merged.merge(type == SalesSketch.SketchType.ORDER_VALUE ? day.orderValue : day.basketSize);
+            }
+        }
+        for (SalesSketch row : salesSketchRepository.findFromOtherNodes(type, nodeId, start, endDate)) {
+            merged.merge(TDigest.fromBytes(row.getPayload()));
+        }
+        return merged;
+    }
+    
+    private void save(LocalDate date, SalesSketch.SketchType type, byte[] payload) {
+        SalesSketch row = salesSketchRepository.findBySalesDateAndNodeIdAndSketchType(date, nodeId, type)
+                .orElseGet(() -> {
+                    SalesSketch created = new SalesSketch();
+                    created.setSalesDate(date);
+                    created.setNodeId(nodeId);
+                    created.setSketchType(type);
+                    return created;
+                });
+        row.setPayload(payload);
+        row.setUpdatedAt(LocalDateTime.now());
+        salesSketchRepository.save(row);
+    }
+    
+    private DaySketches day(LocalDate date) {
+        return days.computeIfAbsent(date, d -> new DaySketches());
+    }
+    
+    private static LocalDate clamp(LocalDate startDate) {
+        LocalDate oldest = oldestRetainedDay();
+        return startDate.isBefore(oldest) ? oldest : startDate;
+    }
+    
+    private static LocalDate oldestRetainedDay() {
+        return LocalDate.now().minusDays(RETAINED_DAYS - 1);
+    }
+    
+    /**
+     * Sketches of one day on this node
+     */
+    private static class DaySketches {
+        private final HyperLogLog customers = new HyperLogLog();
+        private final CountMinSketch products = new CountMinSketch(TOP_K);
+        private final TDigest orderValue = new TDigest();
+        private final TDigest basketSize = new TDigest();
+        private volatile boolean dirty;
+    }
+}
@@ -0,0 +1,316 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.dto.TrendingProductResponse;
+import com.ims.inventoryms.entity.Order;
+import com.ims.inventoryms.entity.Product;
+import com.ims.inventoryms.entity.ProductTrendingScore;
+import com.ims.inventoryms.event.OrderChangedEvent;
+import com.ims.inventoryms.repository.OrderRepository;
+import com.ims.inventoryms.repository.ProductRepository;
+import com.ims.inventoryms.repository.ProductTrendingScoreRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Trending products by units ordered with exponential time decay: a unit ordered one
+ * half-life ago counts half as much as one ordered now.
+ * <p>
+ * The scores of all nodes live in product_trending_scores. Each node keeps the units ordered
+ * through it in {@link DecayingScores} and every checkpoint adds what it took since the last
+ * one to the shared rows, decaying them to the checkpoint time in the same statement. The top
+ * products are recomputed on a schedule from the shared scores plus this node's unwritten ones,
+ * into an immutable list that the endpoint serves. A node that stops without its shutdown
+ * checkpoint loses at most one checkpoint interval of its own orders.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingProductService {
+    
+    public static final int MAX_TRENDING = 100;
+    
+    // Product id of the row that marks the scores as seeded from past orders
+    private static final Long SEED_MARKER_ID = 0L;
+    // Scores below this many decayed units are dropped from memory and the table
+    private static final double MIN_SCORE = 0.01;
+    private static final int BATCH_SIZE = 500;
+    // Decays the stored score to the new scored_at before adding; assignments apply left to right
+    private static final String ADD_SQL =
+            "INSERT INTO product_trending_scores (product_id, score, scored_at) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE score = score * EXP(? * TIMESTAMPDIFF(MICROSECOND, scored_at, VALUES(scored_at)) / 1000) " +
+            "+ VALUES(score), scored_at = VALUES(scored_at)";
+    private static final String DELETE_NEGLIGIBLE_SQL =
+            "DELETE FROM product_trending_scores WHERE product_id <> ? " +
+            "AND ABS(score * EXP(? * TIMESTAMPDIFF(MICROSECOND, scored_at, ?) / 1000)) < ?";
+    private static final String HOURLY_UNITS_SQL =
+            "SELECT oi.product_id, TIMESTAMP(DATE(oi.order_date), MAKETIME(HOUR(oi.order_date), 0, 0)), SUM(oi.quantity) " +
+            "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+            "WHERE oi.order_date >= ? AND o.order_status <> 'CANCELLED' " +
+            "GROUP BY oi.product_id, DATE(oi.order_date), HOUR(oi.order_date)";
+    
+    private final ProductTrendingScoreRepository trendingScoreRepository;
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    // Units ordered through this node
+    private DecayingScores local;
+    // Changes committed before the scores are loaded, or null once loaded; guarded by its own monitor
+    private volatile List<OrderChangedEvent> pendingEvents = new ArrayList<>();
+    private volatile List<TrendingProductResponse> trending = List.of();
+    
+    @Value("${products.trending.half-life-hours}")
+    private double halfLifeHours;
+    
+    @Value("${products.trending.seed-days}")
+    private int seedDays;
+    
+    @PostConstruct
+    public void init() {
+        local = new DecayingScores(halfLifeHours * 3_600_000, System.currentTimeMillis());
+    }
+    
+    /**
+     * Seed the shared scores from recent orders if no node has yet, then apply the changes
+     * committed on this node meanwhile
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        DecayingScores.Checkpoint seed = transactionTemplate.execute(status -> {
+            List<OrderChangedEvent> pending = pendingEvents;
+            // The first query fixes the snapshot that the buffered events are reconciled with
+            if (trendingScoreRepository.existsByProductIdNot(SEED_MARKER_ID)
+                    || trendingScoreRepository.claimSeed(SEED_MARKER_ID) == 0) {
+                synchronized (pending) {
+                    pending.forEach(this::apply);
+                    pendingEvents = null;
+                }
+                return null;
+            }
+            
+            // Hourly buckets are close enough for decay measured in days and keep the seed small
+            int[] rows = new int[1];
+            jdbcTemplate.query(HOURLY_UNITS_SQL, rs -> {
+                local.add(rs.getLong(1), rs.getLong(3), toEpochMilli(rs.getTimestamp(2).toLocalDateTime()));
+                rows[0]++;
+            }, Timestamp.valueOf(LocalDateTime.now().minusDays(seedDays)));
+            synchronized (pending) {
+                replayPendingEvents(pending);
+                pendingEvents = null;
+            }
+            LocalDateTime scoredAt = LocalDateTime.now();
+            DecayingScores.Checkpoint checkpoint = local.checkpoint(toEpochMilli(scoredAt));
+            write(checkpoint, scoredAt);
+            log.info("Trending scores seeded for {} products from {} hourly buckets", checkpoint.deltas().size(), rows[0]);
+            return checkpoint;
+        });
+        if (seed != null) {
+            local.stored(seed);
+        }
+        // Through the template as the call does not pass the transactional proxy
+        transactionTemplate.executeWithoutResult(status -> refresh());
+    }
+    
+    /**
+     * Add ordered units once the order has committed, and take them back out on cancellation
+     */
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        List<OrderChangedEvent> pending = pendingEvents;
+        if (pending != null) {
+            synchronized (pending) {
+                if (pendingEvents == pending) {
+                    pending.add(event);
+                    return;
+                }
+            }
+        }
+        apply(event);
+    }
+    
+    /**
+     * Current top trending products, highest score first
+     */
+    public List<TrendingProductResponse> getTrendingProducts(int limit) {
+        if (limit < 1 || limit > MAX_TRENDING) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_TRENDING);
+        }
+        List<TrendingProductResponse> current = trending;
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+    
+    /**
+     * Recompute the top trending products from the shared scores and this node's unwritten ones
+     */
+    @Scheduled(fixedDelayString = "${products.trending.refresh-interval-ms}")
+    @Transactional(readOnly = true)
+    public synchronized void refresh() {
+        long now = System.currentTimeMillis();
+        Map<Long, Double> scores = local.pending(now);
+        for (ProductTrendingScore stored : trendingScoreRepository.findByProductIdNot(SEED_MARKER_ID)) {
+            double score = stored.getScore() * local.decay(toEpochMilli(stored.getScoredAt()), now);
+            scores.merge(stored.getProductId(), score, Double::sum);
+        }
+        
+        // Over-select so that inactive products can be filtered out after the lookup
+        int capacity = MAX_TRENDING * 2;
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(capacity + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (entry.getValue() < MIN_SCORE) {
+                continue;
+            }
+            if (heap.size() < capacity) {
+                heap.add(entry);
+            } else if (entry.getValue() > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        
+        List<Map.Entry<Long, Double>> top = new ArrayList<>(heap);
+        top.sort(Map.Entry.<Long, Double>comparingByValue().reversed());
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAllById(top.stream().map(Map.Entry::getKey).toList())
+                .forEach(product -> products.put(product.getId(), product));
+        
+        List<TrendingProductResponse> result = new ArrayList<>(MAX_TRENDING);
+        for (Map.Entry<Long, Double> entry : top) {
+            Product product = products.get(entry.getKey());
+            if (product == null || !product.getIsActive()) {
+                continue;
+            }
+            result.add(TrendingProductResponse.builder()
+                    .productId(product.getId())
+                    .productName(product.getName())
+                    .sku(product.getSku())
+                    .price(product.getPrice())
+                    .categoryName(product.getCategory().getName())
+                    .trendingScore(Math.round(entry.getValue() * 1000) / 1000.0)
+                    .build());
+            if (result.size() == MAX_TRENDING) {
+                break;
+            }
+        }
+        trending = List.copyOf(result);
+    }
+    
+    /**
+     * Add the units ordered through this node since the last checkpoint to the shared scores,
+     * and drop shared scores that have decayed to nothing
+     */
+    @Scheduled(fixedDelayString = "${products.trending.checkpoint-interval-ms}", initialDelayString = "${products.trending.checkpoint-interval-ms}")
+    public synchronized void checkpoint() {
+        LocalDateTime scoredAt = LocalDateTime.now();
+        long now = toEpochMilli(scoredAt);
+        DecayingScores.Checkpoint checkpoint = local.checkpoint(now);
+        transactionTemplate.executeWithoutResult(status -> {
+            write(checkpoint, scoredAt);
+            jdbcTemplate.update(DELETE_NEGLIGIBLE_SQL, SEED_MARKER_ID, -decayRate(), scoredAt, MIN_SCORE);
+        });
+        // Only once committed, so a failed checkpoint is retried by the next one
+        local.stored(checkpoint);
+        local.compact(now, MIN_SCORE);
+        log.debug("Checkpointed trending scores for {} products", checkpoint.deltas().size());
+    }
+    
+    @PreDestroy
+    public void flush() {
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            log.warn("Failed to checkpoint trending scores on shutdown", e);
+        }
+    }
+    
+    private void write(DecayingScores.Checkpoint checkpoint, LocalDateTime scoredAt) {
+        // In product order so that concurrent checkpoints of several nodes lock rows in the same order
+        List<Map.Entry<Long, Double>> rows = new ArrayList<>(checkpoint.deltas().entrySet());
+        rows.sort(Map.Entry.comparingByKey());
+        double negativeDecayRate = -decayRate();
+        jdbcTemplate.batchUpdate(ADD_SQL, rows, BATCH_SIZE, (statement, row) -> {
+            statement.setLong(1, row.getKey());
+            statement.setDouble(2, row.getValue());
+            statement.setObject(3, scoredAt);
+            statement.setDouble(4, negativeDecayRate);
+        });
+    }
+    
+    /**
+     * Apply buffered events that the seed did not already include. The seed's view of each
+     * order is read in the same transaction; events are skipped until one starts from that state.
+     */
+    private void replayPendingEvents(List<OrderChangedEvent> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Set<Long> orderIds = new HashSet<>();
+        pending.forEach(event -> orderIds.add(event.getOrderId()));
+        Map<Long, String> scannedStates = new HashMap<>();
+        for (Object[] row : orderRepository.findStatusesByIdIn(orderIds)) {
+            scannedStates.put((Long) row[0], stateKey((Order.OrderStatus) row[1], (Order.PaymentStatus) row[2]));
+        }
+        
+        for (OrderChangedEvent event : pending) {
+            String known = scannedStates.get(event.getOrderId());
+            boolean seen = event.isCreated()
+                    ? known != null
+                    : !stateKey(event.getPreviousOrderStatus(), event.getPreviousPaymentStatus()).equals(known);
+            if (!seen) {
+                apply(event);
+                // Later changes of this order follow on from this one
+                scannedStates.put(event.getOrderId(), stateKey(event.getOrderStatus(), event.getPaymentStatus()));
+            }
+        }
+    }
+    
+    private void apply(OrderChangedEvent event) {
+        int sign;
+        if (event.isCreated()) {
+            sign = event.isCancelled() ? 0 : 1;
+        } else {
+            sign = event.isCancelled() == event.wasCancelled() ? 0 : event.isCancelled() ? -1 : 1;
+        }
+        if (sign == 0) {
+            return;
+        }
+        long orderedAt = toEpochMilli(event.getOrderDate());
+        for (OrderChangedEvent.Line line : event.getLines()) {
+            local.add(line.getProductId(), sign * line.getQuantity(), orderedAt);
+        }
+    }
+    
+    private double decayRate() {
+        return Math.log(2) / (halfLifeHours * 3_600_000);
+    }
+    
+    private static String stateKey(Order.OrderStatus status, Order.PaymentStatus payment) {
+        return status + "/" + payment;
+    }
+    
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -31,6 +31,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserStatusService userStatusService;
     
     /**
      * Get all users with pagination
@@ -110,12 +111,19 @@ public class UserService {
         Role role = roleRepository.findByName(userRequest.getRole())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid role: " + userRequest.getRole()));
         
+        // Changes that must invalidate the user's existing tokens
+        boolean passwordChanged = userRequest.getPassword() != null && !userRequest.getPassword().trim().isEmpty();
+        boolean statusChanged = passwordChanged
+                || !user.getUsername().equals(userRequest.getUsername())
+                || !user.getRole().getId().equals(role.getId())
+                || user.getIsActive() != Boolean.TRUE.equals(userRequest.getIsActive());
+        
         // Update user fields
         user.setUsername(userRequest.getUsername());
         user.setEmail(userRequest.getEmail());
         
         // Only update password if provided
-        if (userRequest.getPassword() != null && !userRequest.getPassword().trim().isEmpty()) {
+        if (passwordChanged) {
             user.setPassword(passwordEncoder.encode(userRequest.getPassword()));
         }
         
@@ -124,6 +132,10 @@ public class UserService {
         user.setPhone(userRequest.getPhone());
         user.setRole(role);
         user.setIsActive(userRequest.getIsActive());
+        if (statusChanged) {
+            user.bumpStatusVersion();
+            userStatusService.evictAfterCommit(user.getId());
+        }
         
         User savedUser = userRepository.save(user);
         
@@ -146,6 +158,7 @@ public class UserService {
         }
         
         userRepository.delete(user);
+        userStatusService.evictAfterCommit(id);
         
         log.info("User deleted successfully: {}", user.getUsername());
     }
@@ -180,6 +193,8 @@ public class UserService {
         // Only update password if provided
         if (userRequest.getPassword() != null && !userRequest.getPassword().trim().isEmpty()) {
             currentUser.setPassword(passwordEncoder.encode(userRequest.getPassword()));
+            currentUser.bumpStatusVersion();
+            userStatusService.evictAfterCommit(currentUser.getId());
         }
         
         User savedUser = userRepository.save(currentUser);
@@ -224,6 +239,8 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
         
         user.setIsActive(!user.getIsActive());
+        user.bumpStatusVersion();
+        userStatusService.evictAfterCommit(user.getId());
         User savedUser = userRepository.save(user);
         
         log.info("User status toggled to {} for user: {}", savedUser.getIsActive(), savedUser.getUsername());
@@ -0,0 +1,82 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of each user's active flag and account-status version, used to check
+ * the version carried by access tokens without a database query per request.
+ * <p>
+ * Role, username, password and activation changes bump the version, which invalidates
+ * tokens issued before the change. Writes on this node evict the entry as they commit;
+ * other nodes pick the change up once their entry is older than the TTL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserStatusService {
+    
+    private final UserRepository userRepository;
+    private final Map<Long, CachedStatus> cache = new ConcurrentHashMap<>();
+    
+    @Value("${jwt.status-cache.ttl-ms}")
+    private long ttlMs;
+    
+    @Value("${jwt.status-cache.max-entries}")
+    private int maxEntries;
+    
+    /**
+     * Whether the user still exists, is active, and has the given account-status version
+     */
+    public boolean isCurrent(Long userId, long statusVersion) {
+        long now = System.currentTimeMillis();
+        CachedStatus status = cache.get(userId);
+        if (status == null || now - status.loadedAtMs() > ttlMs) {
+            status = load(userId, now);
+        }
+        return status.active() && status.version() == statusVersion;
+    }
+    
+    /**
+     * Drop the cached status of a user once the current transaction commits
+     */
+    public void evictAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.remove(userId);
+                }
+            });
+        } else {
+            cache.remove(userId);
+        }
+    }
+    
+    private CachedStatus load(Long userId, long now) {
+        List<Object[]> rows = userRepository.findStatusById(userId);
+        CachedStatus status = rows.isEmpty()
+                ? new CachedStatus(false, -1, now)
+                : new CachedStatus((Boolean) rows.get(0)[1], ((Number) rows.get(0)[0]).longValue(), now);
+        
+        // The working set is the number of recently active users, so a full reset is rare and cheap
+        if (cache.size() >= maxEntries) {
+            log.debug("User status cache reached {} entries, clearing", maxEntries);
+            cache.clear();
+        }
+        cache.put(userId, status);
+        return status;
+    }
+    
+    private record CachedStatus(boolean active, long version, long loadedAtMs) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.ims.inventoryms.sketch;
+
+/**
+ * 64-bit hashing shared by the streaming sketches
+ */
+final class Hashing {
+    
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private Hashing() {
+    }
+    
+    /**
+     * Hash a string (FNV-1a over its characters, then a MurmurHash3 finalizer)
+     */
+    static long hash(String value) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+    
+    /**
+     * Hash a long key with a seed, giving independent hash functions per seed
+     */
+    static long hash(long value, int seed) {
+        return mix(value ^ mix(seed + 0x9e3779b97f4a7c15L));
+    }
+    
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
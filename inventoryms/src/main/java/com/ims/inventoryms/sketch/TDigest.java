@@ -0,0 +1,186 @@
+package com.ims.inventoryms.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Merging t-digest for streaming quantile estimates.
+ * Values are buffered and periodically folded into at most about {@code COMPRESSION}
+ * weighted centroids; centroids near the tails are kept small, so extreme quantiles
+ * such as p99 stay accurate. Digests merge by folding in each other's centroids.
+ */
+public final class TDigest {
+    
+    private static final double COMPRESSION = 100;
+    private static final int BUFFER_SIZE = 512;
+    
+    private double[] means = new double[0];
+    private long[] weights = new long[0];
+    private final double[] buffer = new double[BUFFER_SIZE];
+    private int buffered;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    
+    public synchronized void add(double value) {
+        buffer[buffered++] = value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (buffered == BUFFER_SIZE) {
+            compress(new double[0], new long[0]);
+        }
+    }
+    
+    public void merge(TDigest other) {
+        double[] otherMeans;
+        long[] otherWeights;
+        double otherMin;
+        double otherMax;
+        synchronized (other) {
+            other.compress(new double[0], new long[0]);
+            otherMeans = other.means.clone();
+            otherWeights = other.weights.clone();
+            otherMin = other.min;
+            otherMax = other.max;
+        }
+        synchronized (this) {
+            min = Math.min(min, otherMin);
+            max = Math.max(max, otherMax);
+            compress(otherMeans, otherWeights);
+        }
+    }
+    
+    /**
+     * Estimated value at quantile {@code q} (0..1), or NaN if nothing was added
+     */
+    public synchronized double quantile(double q) {
+        compress(new double[0], new long[0]);
+        int n = means.length;
+        if (n == 0) {
+            return Double.NaN;
+        }
+        if (n == 1) {
+            return means[0];
+        }
+        
+        long total = 0;
+        for (long weight : weights) {
+            total += weight;
+        }
+        double index = q * total;
+        
+        // Centroid i is centred at cumulative weight (weights before it) + weights[i] / 2
+        double center = weights[0] / 2.0;
+        if (index <= center) {
+            return interpolate(index, 0, min, center, means[0]);
+        }
+        for (int i = 1; i < n; i++) {
+            double nextCenter = center + (weights[i - 1] + weights[i]) / 2.0;
+            if (index <= nextCenter) {
+                return interpolate(index, center, means[i - 1], nextCenter, means[i]);
+            }
+            center = nextCenter;
+        }
+        return interpolate(index, center, means[n - 1], total, max);
+    }
+    
+    public synchronized byte[] toBytes() {
+        compress(new double[0], new long[0]);
+        ByteBuffer bytes = ByteBuffer.allocate(Double.BYTES * 2 + Integer.BYTES + means.length * (Double.BYTES + Long.BYTES));
+        bytes.putDouble(min);
+        bytes.putDouble(max);
+        bytes.putInt(means.length);
+        for (int i = 0; i < means.length; i++) {
+            bytes.putDouble(means[i]);
+            bytes.putLong(weights[i]);
+        }
+        return bytes.array();
+    }
+    
+    public static TDigest fromBytes(byte[] payload) {
+        ByteBuffer bytes = ByteBuffer.wrap(payload);
+        TDigest digest = new TDigest();
+        digest.min = bytes.getDouble();
+        digest.max = bytes.getDouble();
+        int n = bytes.getInt();
+        if (bytes.remaining() != n * (Double.BYTES + Long.BYTES)) {
+            throw new IllegalArgumentException("Invalid t-digest payload of " + payload.length + " bytes");
+        }
+        digest.means = new double[n];
+        digest.weights = new long[n];
+        for (int i = 0; i < n; i++) {
+            digest.means[i] = bytes.getDouble();
+            digest.weights[i] = bytes.getLong();
+        }
+        return digest;
+    }
+    
+    /**
+     * Fold the buffer and the extra centroids into the centroid list
+     */
+    private void compress(double[] extraMeans, long[] extraWeights) {
+        if (buffered == 0 && extraMeans.length == 0) {
+            return;
+        }
+        
+        int n = means.length + extraMeans.length + buffered;
+        double[] allMeans = new double[n];
+        long[] allWeights = new long[n];
+        System.arraycopy(means, 0, allMeans, 0, means.length);
+        System.arraycopy(weights, 0, allWeights, 0, weights.length);
+        System.arraycopy(extraMeans, 0, allMeans, means.length, extraMeans.length);
+        System.arraycopy(extraWeights, 0, allWeights, weights.length, extraWeights.length);
+        int offset = means.length + extraMeans.length;
+        for (int i = 0; i < buffered; i++) {
+            allMeans[offset + i] = buffer[i];
+            allWeights[offset + i] = 1;
+        }
+        buffered = 0;
+        
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(allMeans[a], allMeans[b]));
+        
+        long total = 0;
+        for (long weight : allWeights) {
+            total += weight;
+        }
+        
+        double[] mergedMeans = new double[n];
+        long[] mergedWeights = new long[n];
+        int count = 0;
+        double currentMean = allMeans[order[0]];
+        long currentWeight = allWeights[order[0]];
+        long weightBefore = 0;
+        for (int i = 1; i < n; i++) {
+            int next = order[i];
+            long proposed = currentWeight + allWeights[next];
+            double q0 = (double) weightBefore / total;
+            double q2 = (double) (weightBefore + proposed) / total;
+            if (proposed <= total * Math.min(maxSize(q0), maxSize(q2))) {
+                currentMean += (allMeans[next] - currentMean) * allWeights[next] / proposed;
+                currentWeight = proposed;
+            } else {
+                mergedMeans[count] = currentMean;
+                mergedWeights[count++] = currentWeight;
+                weightBefore += currentWeight;
+                currentMean = allMeans[next];
+                currentWeight = allWeights[next];
+            }
+        }
+        mergedMeans[count] = currentMean;
+        mergedWeights[count++] = currentWeight;
+        
+        means = Arrays.copyOf(mergedMeans, count);
+        weights = Arrays.copyOf(mergedWeights, count);
+    }
+    
+    private static double maxSize(double q) {
+        return 4 * q * (1 - q) / COMPRESSION;
+    }
+    
+    private static double interpolate(double x, double x0, double y0, double x1, double y1) {
+        return x1 == x0 ? y0 : y0 + (y1 - y0) * (x - x0) / (x1 - x0);
+    }
+}
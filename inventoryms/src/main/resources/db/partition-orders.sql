@@ -0,0 +1,40 @@
+-- One-time migration: monthly RANGE COLUMNS partitioning of orders and order_items on order_date.
+--
+-- MySQL requires the partitioning column in every unique key and does not allow foreign keys
+-- on partitioned InnoDB tables, so this migration:
+--   * drops the foreign keys between orders, order_items, users and products
+--     (referential integrity is enforced by the application),
+--   * widens the primary keys to (id, order_date),
+--   * replaces the unique key on orders.order_number with a plain index.
+--
+-- Run during a maintenance window, then set orders.partitioning.enabled=true so that
+-- OrderPartitionService keeps creating upcoming monthly partitions.
+-- Replace the foreign key / unique key names below with the ones from SHOW CREATE TABLE.
+-- With spring.jpa.hibernate.ddl-auto=update, Hibernate will log failed attempts to re-create
+-- the dropped constraints on startup; switch ddl-auto to none once this migration is applied.
+
+UPDATE order_items oi JOIN orders o ON o.id = oi.order_id
+SET oi.order_date = o.order_date
+WHERE oi.order_date IS NULL;
+
+ALTER TABLE order_items DROP FOREIGN KEY fk_order_items_order;
+ALTER TABLE order_items DROP FOREIGN KEY fk_order_items_product;
+ALTER TABLE orders DROP FOREIGN KEY fk_orders_user;
+ALTER TABLE orders DROP INDEX uk_orders_order_number;
+ALTER TABLE orders ADD INDEX idx_orders_order_number (order_number);
+
+ALTER TABLE orders MODIFY order_date DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY, ADD PRIMARY KEY (id, order_date);
+ALTER TABLE order_items MODIFY order_date DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY, ADD PRIMARY KEY (id, order_date);
+
+-- Start with one partition per existing month (adjust the first boundary to the oldest order),
+-- followed by the catch-all pmax that OrderPartitionService splits each month.
+ALTER TABLE orders PARTITION BY RANGE COLUMNS (order_date) (
+    PARTITION p202501 VALUES LESS THAN ('2025-02-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+ALTER TABLE order_items PARTITION BY RANGE COLUMNS (order_date) (
+    PARTITION p202501 VALUES LESS THAN ('2025-02-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
@@ -0,0 +1,169 @@
+package com.ims.inventoryms.config;
+
+import com.ims.inventoryms.exception.ServiceBusyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTests {
+
+	private static final long LONG_WAIT_MS = 10_000;
+
+	@Test
+	void hashesAndVerifiesThroughDelegate() {
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new GatedEncoder(), 2, 4, LONG_WAIT_MS);
+		try {
+			String hash = encoder.encode("secret");
+
+			assertEquals("hash:secret", hash);
+			assertTrue(encoder.matches("secret", hash));
+			assertFalse(encoder.matches("other", hash));
+			assertEquals(3L, encoder.getMetrics().get("completed"));
+		} finally {
+			encoder.destroy();
+		}
+	}
+
+	@Test
+	void rejectsWhenQueueIsFull() throws Exception {
+		GatedEncoder delegate = new GatedEncoder().closed();
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 1, 1, LONG_WAIT_MS);
+		try {
+			Thread running = encodeInBackground(encoder);
+			assertTrue(delegate.started.await(5, TimeUnit.SECONDS));
+			Thread queued = encodeInBackground(encoder);
+			awaitCondition(() -> (int) encoder.getMetrics().get("queueDepth") == 1);
+
+			assertThrows(ServiceBusyException.class, () -> encoder.encode("rejected"));
+			assertEquals(1L, encoder.getMetrics().get("rejected"));
+
+			delegate.gate.countDown();
+			running.join();
+			queued.join();
+			assertEquals(2, delegate.calls.get());
+		} finally {
+			encoder.destroy();
+		}
+	}
+
+	@Test
+	void timedOutRunningHashStaysInFlightUntilItFinishes() throws Exception {
+		GatedEncoder delegate = new GatedEncoder().closed();
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 1, 1, 50);
+		try {
+			assertThrows(ServiceBusyException.class, () -> encoder.encode("slow"));
+
+			assertEquals(1L, encoder.getMetrics().get("timedOut"));
+			assertEquals(1, encoder.getMetrics().get("abandonedInFlight"));
+
+			delegate.gate.countDown();
+			awaitCondition(() -> (int) encoder.getMetrics().get("abandonedInFlight") == 0);
+			assertEquals(1L, encoder.getMetrics().get("completed"));
+		} finally {
+			encoder.destroy();
+		}
+	}
+
+	@Test
+	void timedOutQueuedHashIsRemovedAndNeverRuns() throws Exception {
+		GatedEncoder delegate = new GatedEncoder().closed();
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 1, 1, 200);
+		try {
+			Thread running = encodeInBackground(encoder);
+			assertTrue(delegate.started.await(5, TimeUnit.SECONDS));
+
+			assertThrows(ServiceBusyException.class, () -> encoder.encode("queued"));
+			assertEquals(0, encoder.getMetrics().get("queueDepth"));
+
+			delegate.gate.countDown();
+			running.join();
+			awaitCondition(() -> (int) encoder.getMetrics().get("abandonedInFlight") == 0);
+			assertEquals(1, delegate.calls.get());
+			assertEquals(1L, encoder.getMetrics().get("completed"));
+		} finally {
+			encoder.destroy();
+		}
+	}
+
+	@Test
+	void rethrowsDelegateFailure() {
+		IllegalStateException failure = new IllegalStateException("broken hash");
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new GatedEncoder().failingWith(failure), 1, 1, LONG_WAIT_MS);
+		try {
+			assertSame(failure, assertThrows(IllegalStateException.class, () -> encoder.encode("secret")));
+		} finally {
+			encoder.destroy();
+		}
+	}
+
+	private static Thread encodeInBackground(BoundedPasswordEncoder encoder) {
+		Thread thread = new Thread(() -> {
+			try {
+				encoder.encode("background");
+			} catch (ServiceBusyException e) {
+				// Expected for callers that wait longer than the encoder allows
+			}
+		});
+		thread.start();
+		return thread;
+	}
+
+	private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "condition not reached in time");
+			Thread.sleep(5);
+		}
+	}
+
+	/**
+	 * Encoder whose calls block until the gate opens, so tests control how long a hash runs
+	 */
+	private static class GatedEncoder implements PasswordEncoder {
+
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final AtomicInteger calls = new AtomicInteger();
+		private CountDownLatch gate = new CountDownLatch(0);
+		private RuntimeException failure;
+
+		GatedEncoder closed() {
+			gate = new CountDownLatch(1);
+			return this;
+		}
+
+		GatedEncoder failingWith(RuntimeException failure) {
+			this.failure = failure;
+			return this;
+		}
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			calls.incrementAndGet();
+			started.countDown();
+			try {
+				gate.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (failure != null) {
+				throw failure;
+			}
+			return "hash:" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encode(rawPassword).equals(encodedPassword);
+		}
+	}
+}
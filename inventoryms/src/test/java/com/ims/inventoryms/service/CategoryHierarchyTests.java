@@ -0,0 +1,213 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.entity.Category;
+import com.ims.inventoryms.entity.CategoryClosure;
+import com.ims.inventoryms.entity.Product;
+import com.ims.inventoryms.repository.CategoryClosureRepository;
+import com.ims.inventoryms.repository.CategoryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+class CategoryHierarchyTests {
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private CategoryClosureRepository categoryClosureRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private String suffix;
+
+	// root -> child -> leaf with one product, and a separate other root
+	private Long root;
+	private Long child;
+	private Long leaf;
+	private Long otherRoot;
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		suffix = UUID.randomUUID().toString().substring(0, 8);
+		root = createCategory("Root", null);
+		child = createCategory("Child", root);
+		leaf = createCategory("Leaf", child);
+		otherRoot = createCategory("Other", null);
+
+		Product product = new Product();
+		product.setName("Hierarchy Product");
+		product.setBarcode("HIER-" + suffix);
+		product.setPrice(BigDecimal.TEN);
+		product.setCostPrice(BigDecimal.ONE);
+		product.setCategory(categoryRepository.getReferenceById(leaf));
+		productId = productService.createProduct(product).getId();
+	}
+
+	@Test
+	void createAddsPathsToEveryAncestor() {
+		assertPath(root, leaf, 2);
+		assertPath(child, leaf, 1);
+		assertPath(leaf, leaf, 0);
+		assertFalse(categoryClosureRepository.existsByAncestorIdAndDescendantId(otherRoot, leaf));
+	}
+
+	@Test
+	void moveCarriesSubtreePaths() {
+		categoryService.moveCategory(child, otherRoot);
+
+		assertFalse(categoryClosureRepository.existsByAncestorIdAndDescendantId(root, child));
+		assertFalse(categoryClosureRepository.existsByAncestorIdAndDescendantId(root, leaf));
+		assertPath(otherRoot, child, 1);
+		assertPath(otherRoot, leaf, 2);
+		assertPath(child, leaf, 1);
+	}
+
+	@Test
+	void moveToTopLevelDetachesFromFormerAncestors() {
+		categoryService.moveCategory(child, null);
+
+		assertFalse(categoryClosureRepository.existsByAncestorIdAndDescendantId(root, leaf));
+		assertPath(child, leaf, 1);
+	}
+
+	@Test
+	void moveBelowOwnSubtreeIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> categoryService.moveCategory(root, leaf));
+		assertThrows(IllegalArgumentException.class, () -> categoryService.moveCategory(root, root));
+	}
+
+	@Test
+	void deleteLeafRemovesItsPaths() {
+		productService.deleteProduct(productId);
+
+		categoryService.deleteCategory(leaf);
+
+		assertFalse(categoryClosureRepository.existsByAncestorIdAndDescendantId(root, leaf));
+		assertFalse(categoryClosureRepository.existsByAncestorIdAndDescendantId(leaf, leaf));
+	}
+
+	@Test
+	void createRollsCountersUp() {
+		Category rootCategory = reload(root);
+		assertEquals(1, rootCategory.getSubCategoryCount());
+		assertEquals(2, rootCategory.getDescendantCount());
+		assertEquals(0L, rootCategory.getActiveProductCount());
+		assertEquals(1L, rootCategory.getSubtreeProductCount());
+		assertEquals(1L, reload(leaf).getActiveProductCount());
+	}
+
+	@Test
+	void moveCarriesSubtreeCounters() {
+		categoryService.moveCategory(child, otherRoot);
+
+		Category rootCategory = reload(root);
+		assertEquals(0, rootCategory.getSubCategoryCount());
+		assertEquals(0, rootCategory.getDescendantCount());
+		assertEquals(0L, rootCategory.getSubtreeProductCount());
+		Category otherCategory = reload(otherRoot);
+		assertEquals(1, otherCategory.getSubCategoryCount());
+		assertEquals(2, otherCategory.getDescendantCount());
+		assertEquals(1L, otherCategory.getSubtreeProductCount());
+	}
+
+	@Test
+	void moveToTopLevelTakesCountersOffFormerAncestors() {
+		categoryService.moveCategory(child, null);
+
+		Category rootCategory = reload(root);
+		assertEquals(0, rootCategory.getSubCategoryCount());
+		assertEquals(0, rootCategory.getDescendantCount());
+		assertEquals(0L, rootCategory.getSubtreeProductCount());
+		assertEquals(1L, reload(child).getSubtreeProductCount());
+	}
+
+	@Test
+	void productChangesRollUpThroughAncestors() {
+		productService.toggleProductStatus(productId);
+
+		assertEquals(0L, reload(leaf).getActiveProductCount());
+		assertEquals(0L, reload(root).getSubtreeProductCount());
+
+		productService.toggleProductStatus(productId);
+		assertEquals(1L, reload(root).getSubtreeProductCount());
+
+		productService.deleteProduct(productId);
+
+		assertEquals(0L, reload(leaf).getActiveProductCount());
+		assertEquals(0L, reload(child).getSubtreeProductCount());
+	}
+
+	@Test
+	void deleteLeafTakesItOffAncestorCounters() {
+		productService.deleteProduct(productId);
+
+		categoryService.deleteCategory(leaf);
+
+		assertEquals(0, reload(child).getSubCategoryCount());
+		assertEquals(1, reload(root).getDescendantCount());
+	}
+
+	@Test
+	void maintainedCountersMatchRecomputedOnes() {
+		categoryService.moveCategory(child, otherRoot);
+		createCategory("Second Leaf", child);
+		categoryService.moveCategory(leaf, root);
+		List<Long> ids = List.of(root, child, leaf, otherRoot);
+		List<List<Number>> maintained = ids.stream().map(id -> counters(reload(id))).toList();
+
+		categoryRepository.repairCounters();
+
+		assertEquals(maintained, ids.stream().map(id -> counters(reload(id))).toList());
+	}
+
+	private Long createCategory(String name, Long parentId) {
+		Category category = new Category();
+		category.setName(name + " " + suffix);
+		if (parentId != null) {
+			category.setParentCategory(categoryRepository.getReferenceById(parentId));
+		}
+		return categoryService.createCategory(category).getId();
+	}
+
+	/**
+	 * Read a category back from the database, where the counters are maintained
+	 */
+	private Category reload(Long id) {
+		entityManager.flush();
+		entityManager.clear();
+		return categoryRepository.findById(id).orElseThrow();
+	}
+
+	private void assertPath(Long ancestorId, Long descendantId, int depth) {
+		CategoryClosure path = categoryClosureRepository.findById(new CategoryClosure.Key(ancestorId, descendantId))
+				.orElseThrow(() -> new AssertionError("no path from " + ancestorId + " to " + descendantId));
+		assertEquals(depth, path.getDepth());
+	}
+
+	private static List<Number> counters(Category category) {
+		return List.of(category.getActiveProductCount(), category.getSubCategoryCount(),
+				category.getDescendantCount(), category.getSubtreeProductCount());
+	}
+}
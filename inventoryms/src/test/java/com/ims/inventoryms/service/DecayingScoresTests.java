@@ -0,0 +1,121 @@
+package com.ims.inventoryms.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DecayingScoresTests {
+
+	private static final long HALF_LIFE_MS = 3_600_000L;
+	private static final long START = 1_700_000_000_000L;
+
+	@Test
+	void halvesEveryHalfLife() {
+		DecayingScores scores = new DecayingScores(HALF_LIFE_MS, START);
+		scores.add(1L, 8, START);
+
+		assertEquals(8.0, scores.pending(START).get(1L), 1e-9);
+		assertEquals(4.0, scores.pending(START + HALF_LIFE_MS).get(1L), 1e-9);
+		assertEquals(1.0, scores.pending(START + 3 * HALF_LIFE_MS).get(1L), 1e-9);
+	}
+
+	@Test
+	void weighsAmountsByWhenTheyHappened() {
+		DecayingScores scores = new DecayingScores(HALF_LIFE_MS, START);
+		scores.add(1L, 4, START);
+		scores.add(1L, 4, START + HALF_LIFE_MS);
+		scores.add(2L, 3, START + 2 * HALF_LIFE_MS);
+
+		Map<Long, Double> pending = scores.pending(START + 2 * HALF_LIFE_MS);
+
+		assertEquals(1.0 + 2.0, pending.get(1L), 1e-9);
+		assertEquals(3.0, pending.get(2L), 1e-9);
+	}
+
+	@Test
+	void negativeAmountsTakeScoreBackOut() {
+		DecayingScores scores = new DecayingScores(HALF_LIFE_MS, START);
+		scores.add(1L, 5, START);
+		scores.add(1L, -5, START);
+
+		assertTrue(scores.pending(START + HALF_LIFE_MS).isEmpty());
+	}
+
+	@Test
+	void checkpointTakesOnlyWhatWasAddedSinceTheLastStoredOne() {
+		DecayingScores scores = new DecayingScores(HALF_LIFE_MS, START);
+		scores.add(1L, 8, START);
+
+		DecayingScores.Checkpoint first = scores.checkpoint(START + HALF_LIFE_MS);
+		assertEquals(4.0, first.deltas().get(1L), 1e-9);
+		scores.stored(first);
+		assertTrue(scores.pending(START + HALF_LIFE_MS).isEmpty());
+
+		scores.add(1L, 2, START + HALF_LIFE_MS);
+		DecayingScores.Checkpoint second = scores.checkpoint(START + 2 * HALF_LIFE_MS);
+		assertEquals(1.0, second.deltas().get(1L), 1e-9);
+	}
+
+	@Test
+	void unstoredCheckpointIsTakenAgain() {
+		DecayingScores scores = new DecayingScores(HALF_LIFE_MS, START);
+		scores.add(1L, 8, START);
+
+		scores.checkpoint(START);
+		DecayingScores.Checkpoint retry = scores.checkpoint(START);
+
+		assertEquals(8.0, retry.deltas().get(1L), 1e-9);
+	}
+
+	@Test
+	void compactDropsStoredNegligibleKeysOnly() {
+		DecayingScores scores = new DecayingScores(HALF_LIFE_MS, START);
+		scores.add(1L, 1, START);
+		scores.add(2L, 1000, START);
+		scores.add(3L, 1, START);
+		DecayingScores.Checkpoint checkpoint = scores.checkpoint(START);
+		scores.stored(checkpoint);
+		scores.add(3L, 1, START);
+
+		// Key 1 is down to 1/1024
+		scores.compact(START + 10 * HALF_LIFE_MS, 0.01);
+
+		assertEquals(2, scores.size());
+		assertTrue(scores.pending(START + 10 * HALF_LIFE_MS).containsKey(3L));
+	}
+
+	@Test
+	void rebaseKeepsUnstoredScoresAndDropsStoredOnes() {
+		DecayingScores scores = new DecayingScores(HALF_LIFE_MS, START);
+		scores.add(1L, 8, START);
+		scores.stored(scores.checkpoint(START));
+		long late = START + 50 * HALF_LIFE_MS;
+		scores.add(2L, 16, late - HALF_LIFE_MS);
+
+		scores.compact(late, 0.0);
+
+		Map<Long, Double> pending = scores.pending(late + HALF_LIFE_MS);
+		assertEquals(1, pending.size());
+		assertEquals(4.0, pending.get(2L), 1e-9);
+		assertEquals(1, scores.size());
+	}
+
+	@Test
+	void staysAccurateAcrossManyRebases() {
+		DecayingScores scores = new DecayingScores(HALF_LIFE_MS, START);
+		long now = START;
+		for (int i = 0; i < 10; i++) {
+			now += 30 * HALF_LIFE_MS;
+			scores.add(1L, 1, now - HALF_LIFE_MS);
+			scores.compact(now, 0.0);
+		}
+
+		// Earlier additions have decayed to at most 2^-31 of their size
+		assertEquals(0.5, scores.pending(now).get(1L), 1e-6);
+		scores.add(1L, 2, now);
+		assertEquals(2.5, scores.pending(now).get(1L), 1e-6);
+	}
+}
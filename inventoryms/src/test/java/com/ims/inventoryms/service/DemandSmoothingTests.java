@@ -0,0 +1,96 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.entity.ProductDemandForecast;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DemandSmoothingTests {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+	private final DemandSmoothing smoothing = new DemandSmoothing(0.2, 7, 14, 1.65);
+
+	@Test
+	void completedDayMovesLevelByAlpha() {
+		ProductDemandForecast forecast = forecast(10);
+
+		smoothing.advance(forecast, DAY.plusDays(1));
+
+		assertEquals(2.0, forecast.getDailyDemand(), 1e-9);
+		// (1 - alpha) * alpha * error^2
+		assertEquals(16.0, forecast.getDemandVariance(), 1e-9);
+		assertEquals(DAY.plusDays(1), forecast.getCurrentDay());
+		assertEquals(0L, forecast.getCurrentDayUnits());
+	}
+
+	@Test
+	void idleDaysDecayTheLevel() {
+		ProductDemandForecast forecast = forecast(10);
+
+		smoothing.advance(forecast, DAY.plusDays(4));
+
+		assertEquals(2.0 * 0.8 * 0.8 * 0.8, forecast.getDailyDemand(), 1e-9);
+	}
+
+	@Test
+	void sameOrEarlierDayLeavesForecastUnchanged() {
+		ProductDemandForecast forecast = forecast(10);
+
+		smoothing.advance(forecast, DAY);
+		smoothing.advance(forecast, DAY.minusDays(1));
+
+		assertEquals(0.0, forecast.getDailyDemand(), 0.0);
+		assertEquals(DAY, forecast.getCurrentDay());
+		assertEquals(10L, forecast.getCurrentDayUnits());
+	}
+
+	@Test
+	void longGapsAreCappedAtAYearOfDecay() {
+		ProductDemandForecast capped = forecast(0);
+		capped.setDailyDemand(100.0);
+		ProductDemandForecast year = forecast(0);
+		year.setDailyDemand(100.0);
+
+		smoothing.advance(capped, DAY.plusDays(10_000));
+		smoothing.advance(year, DAY.plusDays(365));
+
+		assertEquals(year.getDailyDemand(), capped.getDailyDemand(), 0.0);
+		assertEquals(DAY.plusDays(10_000), capped.getCurrentDay());
+	}
+
+	@Test
+	void steadyDemandConvergesWithVanishingVariance() {
+		ProductDemandForecast forecast = forecast(0);
+		for (int d = 1; d <= 200; d++) {
+			forecast.setCurrentDayUnits(5L);
+			smoothing.advance(forecast, DAY.plusDays(d));
+		}
+
+		assertEquals(5.0, forecast.getDailyDemand(), 1e-6);
+		assertTrue(forecast.getDemandVariance() < 1e-6, "variance " + forecast.getDemandVariance());
+	}
+
+	@Test
+	void levelsCoverLeadTimeAndReviewPeriodWithSafetyStock() {
+		ProductDemandForecast forecast = forecast(0);
+		forecast.setDailyDemand(10.0);
+		forecast.setDemandVariance(4.0);
+
+		smoothing.updateLevels(forecast);
+
+		// 10 * 7 + 1.65 * 2 * sqrt(7) = 78.7
+		assertEquals(79, forecast.getReorderPoint());
+		// 10 * 21 + 1.65 * 2 * sqrt(21) = 225.1
+		assertEquals(226, forecast.getOrderUpToLevel());
+	}
+
+	private static ProductDemandForecast forecast(long unitsToday) {
+		ProductDemandForecast forecast = new ProductDemandForecast(1L, DAY);
+		forecast.setCurrentDayUnits(unitsToday);
+		return forecast;
+	}
+}
@@ -0,0 +1,137 @@
+package com.ims.inventoryms.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LiveSalesRingTests {
+
+	private static final int WINDOW = 60;
+	private static final long NOW = 1_000_000L;
+
+	@Test
+	void sumsAddsToTheSameMinute() {
+		LiveSalesRing ring = new LiveSalesRing(WINDOW);
+		ring.add(NOW, NOW, 1, 1_000, 2);
+		ring.add(NOW, NOW, 1, 2_500, 3);
+		ring.add(NOW, NOW, -1, -1_000, -2);
+
+		long[][] buckets = snapshot(ring, NOW, 1, 1);
+
+		assertArrayEquals(new long[] {1}, buckets[0]);
+		assertArrayEquals(new long[] {2_500}, buckets[1]);
+		assertArrayEquals(new long[] {3}, buckets[2]);
+	}
+
+	@Test
+	void groupsMinutesIntoBucketsOldestFirst() {
+		LiveSalesRing ring = new LiveSalesRing(WINDOW);
+		for (int m = 0; m < 6; m++) {
+			ring.add(NOW - m, NOW, 1, 100L * (m + 1), m + 1);
+		}
+
+		long[][] buckets = snapshot(ring, NOW, 3, 2);
+
+		// Minutes NOW-5..NOW-3 then NOW-2..NOW
+		assertArrayEquals(new long[] {3, 3}, buckets[0]);
+		assertArrayEquals(new long[] {400 + 500 + 600, 100 + 200 + 300}, buckets[1]);
+		assertArrayEquals(new long[] {4 + 5 + 6, 1 + 2 + 3}, buckets[2]);
+	}
+
+	@Test
+	void dropsMinutesOutsideTheWindow() {
+		LiveSalesRing ring = new LiveSalesRing(WINDOW);
+		ring.add(NOW - WINDOW, NOW, 1, 100, 1);
+		ring.add(NOW - WINDOW + 1, NOW, 1, 200, 1);
+
+		long[][] buckets = snapshot(ring, NOW, 1, WINDOW);
+
+		assertEquals(1, sum(buckets[0]));
+		assertEquals(200, buckets[1][0]);
+	}
+
+	@Test
+	void recyclesSlotForANewerMinute() {
+		LiveSalesRing ring = new LiveSalesRing(WINDOW);
+		ring.add(NOW, NOW, 1, 100, 1);
+
+		long later = NOW + WINDOW;
+		ring.add(later, later, 1, 700, 7);
+
+		long[][] buckets = snapshot(ring, later, 1, WINDOW);
+		assertEquals(1, sum(buckets[0]));
+		assertEquals(700, sum(buckets[1]));
+		assertEquals(7, sum(buckets[2]));
+	}
+
+	@Test
+	void staleMinuteDoesNotOverwriteNewerOne() {
+		LiveSalesRing ring = new LiveSalesRing(WINDOW);
+		long later = NOW + WINDOW;
+		ring.add(later, later, 1, 700, 7);
+
+		// Same slot, one window older; still inside the window of an old current minute
+		ring.add(NOW, NOW, 1, 100, 1);
+
+		long[][] buckets = snapshot(ring, later, 1, WINDOW);
+		assertEquals(1, sum(buckets[0]));
+		assertEquals(700, sum(buckets[1]));
+	}
+
+	@Test
+	void concurrentAddsAreNotLost() throws InterruptedException {
+		LiveSalesRing ring = new LiveSalesRing(WINDOW);
+		int threads = 8;
+		int addsPerThread = 20_000;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			Thread worker = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < addsPerThread; i++) {
+					ring.add(NOW - i % 10, NOW, 1, 250, 2);
+				}
+			});
+			worker.start();
+			workers.add(worker);
+		}
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		long[][] buckets = snapshot(ring, NOW, 10, 1);
+		long total = (long) threads * addsPerThread;
+		assertEquals(total, buckets[0][0]);
+		assertEquals(total * 250, buckets[1][0]);
+		assertEquals(total * 2, buckets[2][0]);
+	}
+
+	/**
+	 * Orders, revenue in cents and units of {@code count} buckets ending at {@code endMinute}
+	 */
+	private static long[][] snapshot(LiveSalesRing ring, long endMinute, int bucketMinutes, int count) {
+		long[] orders = new long[count];
+		long[] revenueCents = new long[count];
+		long[] units = new long[count];
+		ring.snapshot(endMinute, bucketMinutes, orders, revenueCents, units);
+		return new long[][] {orders, revenueCents, units};
+	}
+
+	private static long sum(long[] values) {
+		long total = 0;
+		for (long value : values) {
+			total += value;
+		}
+		return total;
+	}
+}
@@ -0,0 +1,141 @@
+package com.ims.inventoryms.service;
+
+import com.ims.inventoryms.entity.*;
+import com.ims.inventoryms.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class OrderServiceStatementCountTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderReadModelService orderReadModelService;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	private Long orderId;
+
+	@BeforeEach
+	void setUp() {
+		String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+		Role role = roleRepository.findByName(Role.RoleName.SALES).orElseGet(() -> {
+			Role salesRole = new Role();
+			salesRole.setName(Role.RoleName.SALES);
+			return roleRepository.save(salesRole);
+		});
+
+		User user = new User();
+		user.setUsername("stmt-" + suffix);
+		user.setEmail("stmt-" + suffix + "@ims.test");
+		user.setPassword("password");
+		user.setFirstName("Statement");
+		user.setLastName("Count");
+		user.setRole(role);
+		userRepository.save(user);
+
+		Category category = new Category();
+		category.setName("Statement Count " + suffix);
+		categoryRepository.save(category);
+
+		for (int o = 0; o < 3; o++) {
+			Order order = new Order();
+			order.setUser(user);
+			order.setCustomerName("Customer " + o);
+			order.setPaymentMethod(Order.PaymentMethod.CASH);
+			for (int i = 0; i < 3; i++) {
+				Product product = new Product();
+				product.setName("Product " + o + "-" + i);
+				product.setBarcode("STMT-" + suffix + "-" + o + "-" + i);
+				product.setPrice(BigDecimal.TEN);
+				product.setCostPrice(BigDecimal.ONE);
+				product.setStockQuantity(10);
+				product.setCategory(category);
+				productRepository.save(product);
+
+				OrderItem item = new OrderItem();
+				item.setProduct(product);
+				item.setQuantity(1);
+				item.setPrice(BigDecimal.TEN);
+				order.addOrderItem(item);
+			}
+			orderRepository.save(order);
+			orderReadModelService.refresh(order);
+			orderId = order.getId();
+		}
+
+		entityManager.flush();
+		entityManager.clear();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void getOrderByIdUsesSingleStatement() {
+		orderService.getOrderById(orderId);
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void recentOrdersUseSingleStatement() {
+		orderService.getRecentOrders(PageRequest.of(0, 10));
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void orderListUsesPageQueryAndCount() {
+		orderService.getAllOrders(PageRequest.of(0, 2));
+
+		assertTrue(statistics.getPrepareStatementCount() <= 2);
+	}
+
+	@Test
+	void lazyItemsAndProductsAreBatchFetched() {
+		List<Order> orders = orderRepository.findRecentOrders(PageRequest.of(0, 10));
+		orders.forEach(order -> order.getOrderItems().forEach(item -> item.getProduct().getName()));
+
+		assertTrue(statistics.getPrepareStatementCount() <= 3);
+	}
+}
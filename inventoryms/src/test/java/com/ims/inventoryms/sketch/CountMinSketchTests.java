@@ -0,0 +1,94 @@
+package com.ims.inventoryms.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTests {
+
+	private static final int KEYS = 5_000;
+
+	@Test
+	void neverUndercountsAndStaysWithinErrorBound() {
+		CountMinSketch sketch = new CountMinSketch(10);
+		long total = 0;
+		for (long key = 1; key <= KEYS; key++) {
+			long count = weight(key);
+			sketch.add(key, count);
+			total += count;
+		}
+
+		for (long key = 1; key <= KEYS; key++) {
+			long estimate = sketch.estimate(key);
+			assertTrue(estimate >= weight(key), "undercount for key " + key);
+			// e / width of the total weight, with a margin for the 2% failure probability per key
+			assertTrue(estimate - weight(key) <= total * 0.005, "overcount for key " + key);
+		}
+	}
+
+	@Test
+	void tracksHeaviestKeysHighestFirst() {
+		CountMinSketch sketch = new CountMinSketch(5);
+		for (long key = 1; key <= KEYS; key++) {
+			sketch.add(key, weight(key));
+		}
+
+		List<Map.Entry<Long, Long>> top = sketch.topK();
+
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L), top.stream().map(Map.Entry::getKey).toList());
+	}
+
+	@Test
+	void negativeCountsRemoveEarlierWeight() {
+		CountMinSketch sketch = new CountMinSketch(5);
+		sketch.add(42L, 30);
+		sketch.add(7L, 20);
+
+		sketch.add(42L, -30);
+
+		assertEquals(0, sketch.estimate(42L));
+		assertEquals(20, sketch.estimate(7L));
+	}
+
+	@Test
+	void mergeMatchesSingleSketchOverAllUpdates() {
+		CountMinSketch combined = new CountMinSketch(5);
+		CountMinSketch first = new CountMinSketch(5);
+		CountMinSketch second = new CountMinSketch(5);
+		for (long key = 1; key <= KEYS; key++) {
+			combined.add(key, weight(key));
+			(key % 2 == 0 ? first : second).add(key, weight(key));
+		}
+
+		first.merge(second);
+
+		for (long key = 1; key <= KEYS; key++) {
+			assertEquals(combined.estimate(key), first.estimate(key));
+		}
+		assertEquals(combined.topK(), first.topK());
+	}
+
+	@Test
+	void roundTripsThroughBytes() {
+		CountMinSketch sketch = new CountMinSketch(5);
+		for (long key = 1; key <= 100; key++) {
+			sketch.add(key, weight(key));
+		}
+
+		CountMinSketch restored = CountMinSketch.fromBytes(sketch.toBytes());
+
+		assertEquals(sketch.topK(), restored.topK());
+		assertEquals(sketch.estimate(50L), restored.estimate(50L));
+	}
+
+	/**
+	 * Zipf-like weights: key 1 is the heaviest
+	 */
+	private static long weight(long key) {
+		return 100_000 / key;
+	}
+}
@@ -0,0 +1,70 @@
+package com.ims.inventoryms.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HyperLogLogTests {
+
+	// About three standard errors for 2^12 registers
+	private static final double TOLERANCE = 0.05;
+
+	@Test
+	void estimatesDistinctCountWithinErrorBound() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int i = 0; i < 100_000; i++) {
+			sketch.add("customer-" + i);
+		}
+
+		assertEquals(100_000, sketch.estimate(), 100_000 * TOLERANCE);
+	}
+
+	@Test
+	void ignoresRepeatedValues() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int round = 0; round < 10; round++) {
+			for (int i = 0; i < 1_000; i++) {
+				sketch.add("customer-" + i);
+			}
+		}
+
+		assertEquals(1_000, sketch.estimate(), 1_000 * TOLERANCE);
+	}
+
+	@Test
+	void emptySketchEstimatesZero() {
+		assertEquals(0, new HyperLogLog().estimate());
+	}
+
+	@Test
+	void mergeEstimatesUnionOfOverlappingSets() {
+		HyperLogLog first = new HyperLogLog();
+		HyperLogLog second = new HyperLogLog();
+		for (int i = 0; i < 60_000; i++) {
+			first.add("customer-" + i);
+		}
+		for (int i = 40_000; i < 100_000; i++) {
+			second.add("customer-" + i);
+		}
+
+		first.merge(second);
+
+		assertEquals(100_000, first.estimate(), 100_000 * TOLERANCE);
+	}
+
+	@Test
+	void roundTripsThroughBytes() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int i = 0; i < 5_000; i++) {
+			sketch.add("customer-" + i);
+		}
+
+		assertEquals(sketch.estimate(), HyperLogLog.fromBytes(sketch.toBytes()).estimate());
+	}
+
+	@Test
+	void rejectsPayloadOfWrongSize() {
+		assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[10]));
+	}
+}
@@ -0,0 +1,118 @@
+package com.ims.inventoryms.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TDigestTests {
+
+	private static final int VALUES = 100_000;
+	private static final double[] QUANTILES = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999};
+
+	@Test
+	void estimatesQuantilesOfUniformDistribution() {
+		double[] values = new Random(1).doubles(VALUES, 0, 1_000).toArray();
+		TDigest digest = digestOf(values);
+
+		for (double q : QUANTILES) {
+			assertEquals(q * 1_000, digest.quantile(q), 5, "quantile " + q);
+		}
+	}
+
+	@Test
+	void keepsRankErrorSmallOnSkewedDistribution() {
+		// Log-normal, like order values: long right tail
+		Random random = new Random(2);
+		double[] values = new double[VALUES];
+		for (int i = 0; i < VALUES; i++) {
+			values[i] = Math.exp(3 + random.nextGaussian());
+		}
+		TDigest digest = digestOf(values);
+		Arrays.sort(values);
+
+		for (double q : QUANTILES) {
+			assertRankError(values, q, digest.quantile(q));
+		}
+	}
+
+	@Test
+	void mergedDigestMatchesDistributionOfAllValues() {
+		Random random = new Random(3);
+		double[] values = new double[VALUES];
+		TDigest merged = new TDigest();
+		TDigest[] parts = new TDigest[10];
+		for (int p = 0; p < parts.length; p++) {
+			parts[p] = new TDigest();
+		}
+		for (int i = 0; i < VALUES; i++) {
+			values[i] = random.nextGaussian() * 50 + 200;
+			// Each part sees a different slice of the range, as per-day digests would
+			parts[(int) Math.floorMod((long) (values[i] / 10), parts.length)].add(values[i]);
+		}
+		for (TDigest part : parts) {
+			merged.merge(part);
+		}
+		Arrays.sort(values);
+
+		for (double q : QUANTILES) {
+			assertRankError(values, q, merged.quantile(q));
+		}
+		assertEquals(values[0], merged.quantile(0));
+		assertEquals(values[VALUES - 1], merged.quantile(1));
+	}
+
+	@Test
+	void emptyDigestHasNoQuantiles() {
+		assertTrue(Double.isNaN(new TDigest().quantile(0.5)));
+	}
+
+	@Test
+	void singleValueIsEveryQuantile() {
+		TDigest digest = new TDigest();
+		digest.add(42);
+
+		assertEquals(42, digest.quantile(0.01));
+		assertEquals(42, digest.quantile(0.99));
+	}
+
+	@Test
+	void roundTripsThroughBytes() {
+		TDigest digest = digestOf(new Random(4).doubles(10_000, 0, 100).toArray());
+
+		TDigest restored = TDigest.fromBytes(digest.toBytes());
+
+		for (double q : QUANTILES) {
+			assertEquals(digest.quantile(q), restored.quantile(q));
+		}
+	}
+
+	@Test
+	void rejectsTruncatedPayload() {
+		byte[] payload = digestOf(new double[]{1, 2, 3}).toBytes();
+
+		assertThrows(IllegalArgumentException.class, () -> TDigest.fromBytes(Arrays.copyOf(payload, payload.length - 1)));
+	}
+
+	private static TDigest digestOf(double[] values) {
+		TDigest digest = new TDigest();
+		for (double value : values) {
+			digest.add(value);
+		}
+		return digest;
+	}
+
+	/**
+	 * The estimate's rank in the sorted values must be close to q, tighter towards the tails
+	 */
+	private static void assertRankError(double[] sorted, double q, double estimate) {
+		int rank = Arrays.binarySearch(sorted, estimate);
+		double actual = (double) (rank >= 0 ? rank : -rank - 1) / sorted.length;
+		double tolerance = Math.max(0.0002, 0.005 * 4 * q * (1 - q));
+		assertEquals(q, actual, tolerance, "quantile " + q + " estimated " + estimate);
+	}
+}